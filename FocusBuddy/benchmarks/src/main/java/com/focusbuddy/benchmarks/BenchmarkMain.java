@@ -0,0 +1,40 @@
+package com.focusbuddy.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line (a
+ * benchmark regex, -p, -f, -wi, ...) but writes results as JSON to
+ * jmh-result.json unless -rf or -rff say otherwise, so runs on different
+ * commits can be compared, e.g. with jmh.morethan.io.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar [regex] [JMH options]
+ */
+public final class BenchmarkMain {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        boolean runsBenchmarks = !(commandLine.shouldHelp() || commandLine.shouldList()
+                || commandLine.shouldListWithParams() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats());
+        boolean choosesOutput = commandLine.getResultFormat().hasValue() || commandLine.getResult().hasValue();
+        if (!runsBenchmarks || choosesOutput) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(DEFAULT_RESULT_FILE)
+                .build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.focusbuddy.mapper;
+
+import com.focusbuddy.dto.response.SessionResponse;
+import com.focusbuddy.model.DistractionLog;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a list of sessions with their distraction logs to responses, as
+ * done for history pages (up to 100) and daily summaries.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar SessionMapperBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionMapperBenchmark {
+
+    private static final int DISTRACTIONS_PER_SESSION = 2;
+
+    @Param({"10", "100", "1000"})
+    private int sessions;
+
+    private final SessionMapper sessionMapper = new SessionMapper();
+    private List<Session> list;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 3, 9, 0);
+        list = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            Session session = new Session();
+            session.setId((long) i);
+            session.setStatus(SessionState.COMPLETED);
+            session.setTaskDescription("Session " + i);
+            session.setPlannedDuration(25);
+            session.setActualDuration(1500);
+            session.setStartedAt(start.plusMinutes(30L * i));
+            session.setEndedAt(start.plusMinutes(30L * i + 25));
+            session.setSessionType(SessionType.FOCUS);
+            for (int d = 0; d < DISTRACTIONS_PER_SESSION; d++) {
+                DistractionLog log = new DistractionLog();
+                log.setId((long) i * DISTRACTIONS_PER_SESSION + d);
+                log.setSession(session);
+                log.setDescription("Distraction " + d);
+                log.setLoggedAt(session.getStartedAt().plusMinutes(d + 1));
+                session.getDistractionLogs().add(log);
+            }
+            list.add(session);
+        }
+    }
+
+    @Benchmark
+    public List<SessionResponse> toResponseList() {
+        return sessionMapper.toResponseList(list);
+    }
+}
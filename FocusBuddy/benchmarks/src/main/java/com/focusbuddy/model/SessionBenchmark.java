@@ -0,0 +1,73 @@
+package com.focusbuddy.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-session domain logic that runs for every session in a history page,
+ * export or timeline: computing focus time and walking the state machine.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar SessionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 9, 0);
+
+    private Session ended;
+    private Session running;
+
+    @Setup
+    public void setUp() {
+        ended = newSession();
+        ended.setStatus(SessionState.COMPLETED);
+        ended.setEndedAt(START.plusMinutes(50));
+        ended.setTotalPausedSeconds(420);
+
+        running = newSession();
+        running.setStartedAt(LocalDateTime.now().minusMinutes(20));
+    }
+
+    @Benchmark
+    public long actualFocusSecondsEnded() {
+        return ended.getActualFocusSeconds();
+    }
+
+    /**
+     * Running sessions are measured against the clock.
+     */
+    @Benchmark
+    public long actualFocusSecondsRunning() {
+        return running.getActualFocusSeconds();
+    }
+
+    /**
+     * STARTED → PAUSED → RESUMED → COMPLETED, as replayed after each guarded update.
+     */
+    @Benchmark
+    public Session fullLifecycle() {
+        Session session = newSession();
+        session.transitionTo(SessionState.PAUSED, START.plusMinutes(10));
+        session.transitionTo(SessionState.RESUMED, START.plusMinutes(15));
+        session.transitionTo(SessionState.COMPLETED, START.plusMinutes(30));
+        return session;
+    }
+
+    private static Session newSession() {
+        Session session = new Session();
+        session.setId(1L);
+        session.setStatus(SessionState.STARTED);
+        session.setTaskDescription("Benchmark");
+        session.setPlannedDuration(25);
+        session.setStartedAt(START);
+        session.setSessionType(SessionType.FOCUS);
+        return session;
+    }
+}
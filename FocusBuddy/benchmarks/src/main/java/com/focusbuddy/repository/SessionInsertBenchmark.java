@@ -0,0 +1,95 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.FocusBuddyApplication;
+import com.focusbuddy.model.DistractionLog;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.User;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput for sessions with distraction logs, one transaction
+ * per batch of {@link #SESSIONS_PER_TX} sessions. Boots the application
+ * against the in-memory test database.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar SessionInsertBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionInsertBenchmark {
+
+    static final int SESSIONS_PER_TX = 100;
+    static final int DISTRACTIONS_PER_SESSION = 2;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(FocusBuddyApplication.class,
+                "--spring.profiles.active=test",
+                "--spring.main.web-application-type=none",
+                "--logging.level.root=WARN");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+
+        userId = TestUsers.create(context.getBean(UserRepository.class), "bench").getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearRecordedStatements() {
+        // The test profile records every statement; keep that list from growing
+        SqlStatementRecorder.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * One operation = {@value #SESSIONS_PER_TX} sessions and their distraction logs.
+     */
+    @Benchmark
+    public void insertSessionsWithDistractions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = entityManager.getReference(User.class, userId);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < SESSIONS_PER_TX; i++) {
+                Session session = new Session();
+                session.setUser(user);
+                session.setStatus(SessionState.COMPLETED);
+                session.setTaskDescription("Benchmark " + i);
+                session.setPlannedDuration(25);
+                session.setStartedAt(now);
+                session.setEndedAt(now);
+                session.setSessionDate(LocalDate.now());
+                session.setSessionType(SessionType.FOCUS);
+                for (int d = 0; d < DISTRACTIONS_PER_SESSION; d++) {
+                    DistractionLog log = new DistractionLog();
+                    log.setSession(session);
+                    log.setDescription("Distraction " + d);
+                    session.getDistractionLogs().add(log);
+                }
+                entityManager.persist(session);
+            }
+        });
+    }
+}
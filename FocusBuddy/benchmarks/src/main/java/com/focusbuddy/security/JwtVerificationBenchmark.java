@@ -0,0 +1,77 @@
+package com.focusbuddy.security;
+
+import com.focusbuddy.model.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old per-request verification path (decode key, build parser,
+ * parse twice) against the cached parser and the verified-token cache.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar JwtVerificationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET =
+            "dGhpc2lzYXZlcnlsb25nYW5kc2VjdXJlc2VjcmV0a2V5Zm9yand0dG9rZW5zaWduaW5nZm9jdXNidWRkeWFwcGxpY2F0aW9u";
+
+    private JwtTokenProvider provider;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "accessExpirationMs", 900_000L);
+        ReflectionTestUtils.setField(provider, "verifiedCacheSize", 10_000L);
+        provider.init();
+        parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build();
+        token = provider.generateAccessToken(42L, "bench@focusbuddy.com", Role.USER);
+    }
+
+    @Benchmark
+    public String legacyDoubleParse() {
+        // Mirrors the previous filter: one parse to validate and one to read
+        // the subject, each rebuilding the key and parser.
+        legacyParse(token);
+        return legacyParse(token).getSubject();
+    }
+
+    @Benchmark
+    public String cachedParserSingleParse() {
+        // A parser built once, as the provider does, without its verified-token cache
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public AccessTokenClaims verifiedTokenCacheHit() {
+        return provider.verifyAccessToken(token).orElseThrow();
+    }
+
+    private Claims legacyParse(String jwt) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+}
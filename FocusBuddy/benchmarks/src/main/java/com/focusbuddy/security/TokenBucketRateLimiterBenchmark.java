@@ -0,0 +1,58 @@
+package com.focusbuddy.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of an allowed request through the token bucket, single-threaded
+ * and with several threads contending on the same and on distinct keys.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar TokenBucketRateLimiterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenBucketRateLimiterBenchmark {
+
+    private static final int KEYS = 1_024;
+
+    private TokenBucketRateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        // Effectively unlimited so every call takes the allowed path
+        limiter = new TokenBucketRateLimiter(Integer.MAX_VALUE, Duration.ofNanos(Integer.MAX_VALUE),
+                100_000, System::nanoTime);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public long allowedSameKey() {
+        return limiter.tryAcquire(keys[0]);
+    }
+
+    @Benchmark
+    public long allowedDistinctKeys(Cursor cursor) {
+        return limiter.tryAcquire(keys[cursor.next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long allowedDistinctKeysContended(Cursor cursor) {
+        return limiter.tryAcquire(keys[cursor.next++ & (KEYS - 1)]);
+    }
+}
@@ -0,0 +1,131 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.FocusBuddyApplication;
+import com.focusbuddy.dto.ProductivityStats;
+import com.focusbuddy.dto.StatsRange;
+import com.focusbuddy.dto.response.DailySummaryResponseDTO;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The analytics read paths end to end against the in-memory test
+ * database, for one user with sessions spread over the last 30 days:
+ * monthly stats (from the daily rollup's running totals) and today's
+ * summary from AnalyticsService (one grouped aggregate over the day's
+ * sessions), each computed afresh and served from AnalyticsResultCache.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar AnalyticsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+
+    private static final int DAYS = 30;
+    private static final int INSERT_BATCH = 1000;
+
+    @Param({"10", "1000", "100000"})
+    private int sessions;
+
+    private ConfigurableApplicationContext context;
+    private ProductivityService productivityService;
+    private AnalyticsService analyticsService;
+    private AnalyticsResultCache analyticsResultCache;
+    private Long userId;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(FocusBuddyApplication.class,
+                "--spring.profiles.active=test",
+                "--spring.main.web-application-type=none",
+                "--logging.level.root=WARN");
+        productivityService = context.getBean(ProductivityService.class);
+        analyticsService = context.getBean(AnalyticsService.class);
+        analyticsResultCache = context.getBean(AnalyticsResultCache.class);
+        today = LocalDate.now();
+
+        userId = TestUsers.create(context.getBean(UserRepository.class), "bench").getId();
+
+        insertSessions(context.getBean(JdbcTemplate.class));
+        context.getBean(UserDailyStatsService.class).rebuild(userId);
+        SqlStatementRecorder.clear();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearRecordedStatements() {
+        // The test profile records every statement; keep that list from growing
+        SqlStatementRecorder.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductivityStats monthlyStats() {
+        analyticsResultCache.invalidate(userId);
+        return productivityService.getStats(userId, StatsRange.MONTHLY);
+    }
+
+    @Benchmark
+    public ProductivityStats monthlyStatsCached() {
+        return productivityService.getStats(userId, StatsRange.MONTHLY);
+    }
+
+    @Benchmark
+    public DailySummaryResponseDTO dailySummary() {
+        analyticsResultCache.invalidate(userId);
+        return analyticsService.getDailySummary(userId, today);
+    }
+
+    @Benchmark
+    public DailySummaryResponseDTO dailySummaryCached() {
+        return analyticsService.getDailySummary(userId, today);
+    }
+
+    /**
+     * Plain JDBC batches; going through JPA would make setup dominate the run at 100k sessions.
+     */
+    private void insertSessions(JdbcTemplate jdbcTemplate) {
+        SplittableRandom random = new SplittableRandom(42);
+        SessionType[] types = SessionType.values();
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < sessions; i++) {
+            LocalDateTime startedAt = today.minusDays(random.nextInt(DAYS)).atTime(6, 0)
+                    .plusMinutes(random.nextInt(12 * 60));
+            int seconds = 300 + random.nextInt(3000);
+            SessionState status = random.nextInt(10) < 8 ? SessionState.COMPLETED : SessionState.ABORTED;
+            batch.add(new Object[] { userId, status.name(), "Session " + i, Timestamp.valueOf(startedAt),
+                    Timestamp.valueOf(startedAt.plusSeconds(seconds)), types[random.nextInt(types.length)].name(),
+                    seconds, Date.valueOf(startedAt.toLocalDate()) });
+            if (batch.size() == INSERT_BATCH || i == sessions - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO focus_sessions (id, user_id, status, task_description, "
+                        + "planned_duration, started_at, ended_at, total_paused_seconds, session_type, "
+                        + "actual_duration, session_date, version) "
+                        + "VALUES (nextval('focus_sessions_seq'), ?, ?, ?, 25, ?, ?, 0, ?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
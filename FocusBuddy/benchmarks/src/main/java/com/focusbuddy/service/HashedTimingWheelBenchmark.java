@@ -0,0 +1,90 @@
+package com.focusbuddy.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one auto-end tick with many active sessions, against scanning
+ * an in-memory map of every deadline each tick (the cheapest form of the
+ * periodic scan; a query over focus_sessions costs more), and of moving a
+ * deadline on pause or resume.
+ *
+ * Deadlines are spread over the next 30 minutes and each expired session
+ * is replaced by a new one, so the number held stays constant.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar HashedTimingWheelBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashedTimingWheelBenchmark {
+
+    private static final long TICK_MILLIS = 1_000;
+    private static final long SPREAD_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    @Param({"100000", "500000"})
+    private int sessions;
+
+    private HashedTimingWheel<Long> wheel;
+    private Map<Long, Long> deadlines;
+    private long now;
+    private long reschedules;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        wheel = new HashedTimingWheel<>(Duration.ofMillis(TICK_MILLIS), 4096, 0);
+        deadlines = new ConcurrentHashMap<>();
+        for (long i = 0; i < sessions; i++) {
+            long deadline = random.nextLong(TICK_MILLIS, SPREAD_MILLIS);
+            deadlines.put(i, deadline);
+            wheel.schedule(i, deadline);
+        }
+        now = 0;
+    }
+
+    @Benchmark
+    public int wheelTick() {
+        now += TICK_MILLIS;
+        List<Long> expired = wheel.advance(now - 1);
+        for (Long key : expired) {
+            wheel.schedule(key, now + random.nextLong(TICK_MILLIS, SPREAD_MILLIS));
+        }
+        return expired.size();
+    }
+
+    @Benchmark
+    public int fullScanTick() {
+        now += TICK_MILLIS;
+        int expired = 0;
+        for (Map.Entry<Long, Long> entry : deadlines.entrySet()) {
+            if (entry.getValue() < now) {
+                entry.setValue(now + random.nextLong(TICK_MILLIS, SPREAD_MILLIS));
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void reschedule() {
+        long key = random.nextInt(sessions);
+        wheel.schedule(key, now + random.nextLong(TICK_MILLIS, SPREAD_MILLIS));
+        // Let the wheel take in the queued entries now and then, as the tick would
+        if ((++reschedules & 4095) == 0) {
+            now += TICK_MILLIS;
+            wheel.advance(now - 1);
+        }
+    }
+}
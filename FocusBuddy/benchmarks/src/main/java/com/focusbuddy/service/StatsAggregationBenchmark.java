@@ -0,0 +1,121 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.UserDailyStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of ProductivityService.getStats over a 30-day range,
+ * three ways: streaming over every session in the range (how it was
+ * computed before user_daily_stats), summing the range's daily rollup
+ * rows, and subtracting two running totals (what it does now).
+ *
+ * Sessions are spread over the 30 days; 80% are completed.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar StatsAggregationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatsAggregationBenchmark {
+
+    private static final int DAYS = 30;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 6, 1);
+
+    @Param({"10", "1000", "100000"})
+    private int sessions;
+
+    private List<Session> sessionList;
+    private List<UserDailyStats> days;
+    private Optional<UserDailyStats> before;
+    private Optional<UserDailyStats> last;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        SessionType[] types = SessionType.values();
+        TreeMap<LocalDate, UserDailyStats> byDay = new TreeMap<>();
+
+        sessionList = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            LocalDateTime startedAt = FIRST_DAY.plusDays(random.nextInt(DAYS)).atTime(8, 0)
+                    .plusMinutes(random.nextInt(12 * 60));
+            int seconds = 300 + random.nextInt(3000);
+            Session session = new Session();
+            session.setStatus(random.nextInt(10) < 8 ? SessionState.COMPLETED : SessionState.ABORTED);
+            session.setSessionType(types[random.nextInt(types.length)]);
+            session.setStartedAt(startedAt);
+            session.setEndedAt(startedAt.plusSeconds(seconds));
+            session.setActualDuration(seconds);
+            sessionList.add(session);
+
+            UserDailyStats day = byDay.computeIfAbsent(startedAt.toLocalDate(), date -> {
+                UserDailyStats row = new UserDailyStats();
+                row.setStatDate(date);
+                return row;
+            });
+            day.setSessionsStarted(day.getSessionsStarted() + 1);
+            if (session.getStatus() == SessionState.COMPLETED) {
+                day.setSessionsCompleted(day.getSessionsCompleted() + 1);
+                day.setFocusSeconds(day.getFocusSeconds() + seconds);
+            }
+        }
+
+        UserDailyStats previous = new UserDailyStats();
+        for (UserDailyStats day : byDay.values()) {
+            day.setCumSessionsStarted(previous.getCumSessionsStarted() + day.getSessionsStarted());
+            day.setCumSessionsCompleted(previous.getCumSessionsCompleted() + day.getSessionsCompleted());
+            day.setCumCompletedSeconds(previous.getCumCompletedSeconds() + day.getCompletedSeconds());
+            day.setCumActiveDays(previous.getCumActiveDays() + (day.getSessionsCompleted() > 0 ? 1 : 0));
+            previous = day;
+        }
+        days = List.copyOf(byDay.values());
+        before = Optional.empty();
+        last = Optional.of(byDay.lastEntry().getValue());
+    }
+
+    @Benchmark
+    public long[] sessionList() {
+        long totalFocusSeconds = sessionList.stream()
+                .filter(s -> s.getStatus() == SessionState.COMPLETED)
+                .mapToLong(Session::getActualFocusSeconds)
+                .sum();
+        int completedSessions = (int) sessionList.stream()
+                .filter(s -> s.getStatus() == SessionState.COMPLETED)
+                .count();
+        long daysWithFocus = sessionList.stream()
+                .filter(s -> s.getStatus() == SessionState.COMPLETED)
+                .map(s -> s.getStartedAt().toLocalDate())
+                .distinct()
+                .count();
+        return new long[] { totalFocusSeconds, sessionList.size(), completedSessions, daysWithFocus };
+    }
+
+    @Benchmark
+    public long[] dailyRows() {
+        long totalFocusSeconds = days.stream().mapToLong(UserDailyStats::getCompletedSeconds).sum();
+        int totalSessions = days.stream().mapToInt(UserDailyStats::getSessionsStarted).sum();
+        int completedSessions = days.stream().mapToInt(UserDailyStats::getSessionsCompleted).sum();
+        long daysWithFocus = days.stream().filter(day -> day.getSessionsCompleted() > 0).count();
+        return new long[] { totalFocusSeconds, totalSessions, completedSessions, daysWithFocus };
+    }
+
+    @Benchmark
+    public UserDailyStatsService.RangeTotals runningTotals() {
+        return UserDailyStatsService.RangeTotals.of(last).minus(UserDailyStatsService.RangeTotals.of(before));
+    }
+}
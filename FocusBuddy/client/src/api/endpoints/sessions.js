@@ -23,8 +23,10 @@ export const sessionApi = {
     // Alias for backwards compatibility
     create: (task, duration) => apiClient.post('/sessions', { task, duration, sessionType: 'FOCUS' }),
 
-    // GET /sessions - Get all sessions for the user
-    getAll: () => apiClient.get('/sessions'),
+    // GET /sessions - One page of session history, newest first, as { items, nextCursor }.
+    // Optional params: status, sessionType, from, to (YYYY-MM-DD), size (max 100) and cursor,
+    // which is the nextCursor of the previous page; nextCursor is null on the last page.
+    getAll: (params = {}) => apiClient.get('/sessions', { params }),
 
     // GET /sessions/current - Get the active session (if any)
     getCurrent: () => apiClient.get('/sessions/current'),
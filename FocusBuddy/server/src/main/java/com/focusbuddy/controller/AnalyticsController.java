@@ -1,13 +1,12 @@
 package com.focusbuddy.controller;
 
 import com.focusbuddy.dto.response.DailySummaryResponseDTO;
-import com.focusbuddy.security.CurrentUserService;
+import com.focusbuddy.security.AuthenticatedUser;
 import com.focusbuddy.service.AnalyticsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -18,14 +17,13 @@ import java.time.LocalDate;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
-    private final CurrentUserService currentUserService;
 
     @GetMapping("/daily-summary")
     public ResponseEntity<DailySummaryResponseDTO> getDailySummary(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         if (date == null) {
             date = LocalDate.now();
         }
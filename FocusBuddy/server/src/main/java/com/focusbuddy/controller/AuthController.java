@@ -1,11 +1,15 @@
 package com.focusbuddy.controller;
 
 import com.focusbuddy.dto.*;
+import com.focusbuddy.exception.UnauthorizedException;
+import com.focusbuddy.security.AuthRateLimiter;
+import com.focusbuddy.security.AuthenticatedUser;
 import com.focusbuddy.service.AuthService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -17,11 +21,13 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/signup")
     public ResponseEntity<AuthResponse> signup(
             @Valid @RequestBody SignupRequest request,
             HttpServletRequest httpRequest) {
+        authRateLimiter.checkEmail(request.getEmail());
         String deviceInfo = getDeviceInfo(httpRequest);
         AuthResponse response = authService.signup(request, deviceInfo);
         return ResponseEntity.ok(response);
@@ -31,6 +37,7 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(
             @Valid @RequestBody LoginRequest request,
             HttpServletRequest httpRequest) {
+        authRateLimiter.checkEmail(request.getEmail());
         String deviceInfo = getDeviceInfo(httpRequest);
         AuthResponse response = authService.login(request, deviceInfo);
         return ResponseEntity.ok(response);
@@ -51,6 +58,15 @@ public class AuthController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            throw new UnauthorizedException("Authentication required");
+        }
+        authService.logoutAll(principal.userId());
+        return ResponseEntity.noContent().build();
+    }
+
     private String getDeviceInfo(HttpServletRequest request) {
         String userAgent = request.getHeader("User-Agent");
         return userAgent != null ? userAgent.substring(0, Math.min(userAgent.length(), 255)) : "unknown";
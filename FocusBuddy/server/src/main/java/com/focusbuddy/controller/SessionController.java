@@ -1,6 +1,8 @@
 package com.focusbuddy.controller;
 
+import com.focusbuddy.dto.CursorPage;
 import com.focusbuddy.dto.request.AddDistractionRequest;
+import com.focusbuddy.dto.request.AddDistractionsRequest;
 import com.focusbuddy.dto.request.CreateSessionRequest;
 import com.focusbuddy.dto.request.UpdateSessionRequest;
 import com.focusbuddy.dto.response.DistractionLogResponse;
@@ -8,17 +10,21 @@ import com.focusbuddy.dto.response.SessionResponse;
 import com.focusbuddy.mapper.SessionMapper;
 import com.focusbuddy.model.DistractionLog;
 import com.focusbuddy.model.Session;
-import com.focusbuddy.security.CurrentUserService;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.repository.SessionFilter;
+import com.focusbuddy.security.AuthenticatedUser;
 import com.focusbuddy.service.SessionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -33,33 +39,41 @@ public class SessionController {
 
     private final SessionService sessionService;
     private final SessionMapper sessionMapper;
-    private final CurrentUserService currentUserService;
 
     /**
      * POST /api/sessions/start - Start a new focus session
      */
     @PostMapping("/start")
     public ResponseEntity<SessionResponse> startSession(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @Valid @RequestBody CreateSessionRequest request) {
-        log.info("START SESSION CONTROLLER HIT: user={}, task={}", userDetails.getUsername(), request.task());
+        log.info("START SESSION CONTROLLER HIT: user={}, task={}", principal.email(), request.task());
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         Session session = sessionService.startSession(userId, request.task(), request.duration(),
                 request.sessionType());
         return ResponseEntity.status(HttpStatus.CREATED).body(sessionMapper.toResponse(session));
     }
 
     /**
-     * GET /api/v1/sessions - Get all sessions for the current user
+     * GET /api/v1/sessions?status=&sessionType=&from=&to=&cursor=&size=20 - Session history, newest first.
+     * Pass the returned nextCursor as cursor to fetch the following page.
      */
     @GetMapping
-    public ResponseEntity<List<SessionResponse>> getSessions(
-            @AuthenticationPrincipal UserDetails userDetails) {
-
-        Long userId = currentUserService.getUserId(userDetails);
-        List<Session> sessions = sessionService.getSessionHistory(userId);
-        return ResponseEntity.ok(sessionMapper.toResponseList(sessions));
+    public ResponseEntity<CursorPage<SessionResponse>> getSessions(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) SessionState status,
+            @RequestParam(required = false) SessionType sessionType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Long userId = principal.userId();
+        int pageSize = Math.min(Math.max(size, 1), 100);
+        SessionFilter filter = new SessionFilter(status, sessionType, from, to);
+        CursorPage<Session> sessions = sessionService.getSessionHistory(userId, filter, cursor, pageSize);
+        return ResponseEntity.ok(sessions.map(sessionMapper::toResponse));
     }
 
     /**
@@ -67,23 +81,14 @@ public class SessionController {
      */
     @GetMapping("/summary")
     public ResponseEntity<java.util.Map<String, Object>> getDailySummary(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) java.time.LocalDate date) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         java.time.LocalDate queryDate = date != null ? date : java.time.LocalDate.now();
 
         java.util.Map<String, Object> summary = sessionService.getDailySummary(userId, queryDate);
-
-        // Transform inner session list to DTOs and create mutable response map
-        @SuppressWarnings("unchecked")
-        List<Session> sessions = (List<Session>) summary.get("sessions");
-        List<SessionResponse> sessionResponses = sessionMapper.toResponseList(sessions);
-
-        java.util.Map<String, Object> response = new java.util.HashMap<>(summary);
-        response.put("sessions", sessionResponses);
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(summary);
     }
 
     /**
@@ -91,9 +96,9 @@ public class SessionController {
      */
     @GetMapping("/current")
     public ResponseEntity<SessionResponse> getCurrentSession(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         return sessionService.getActiveSession(userId)
                 .map(sessionMapper::toResponse)
                 .map(ResponseEntity::ok)
@@ -105,10 +110,10 @@ public class SessionController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<SessionResponse> getSession(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         Session session = sessionService.getSession(userId, id);
         return ResponseEntity.ok(sessionMapper.toResponse(session));
     }
@@ -118,10 +123,10 @@ public class SessionController {
      */
     @PostMapping("/{id}/pause")
     public ResponseEntity<SessionResponse> pauseSession(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         Session session = sessionService.pauseSession(userId, id);
         return ResponseEntity.ok(sessionMapper.toResponse(session));
     }
@@ -131,10 +136,10 @@ public class SessionController {
      */
     @PostMapping("/{id}/resume")
     public ResponseEntity<SessionResponse> resumeSession(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         Session session = sessionService.resumeSession(userId, id);
         return ResponseEntity.ok(sessionMapper.toResponse(session));
     }
@@ -144,11 +149,11 @@ public class SessionController {
      */
     @PostMapping("/{id}/end")
     public ResponseEntity<SessionResponse> endSession(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id,
             @RequestBody(required = false) UpdateSessionRequest request) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         String reflection = request != null ? request.reflection() : null;
         com.focusbuddy.model.SessionState status = request != null ? request.status() : null;
         Session session = sessionService.endSession(userId, id, reflection, status);
@@ -160,13 +165,34 @@ public class SessionController {
      */
     @PostMapping("/{id}/distractions")
     public ResponseEntity<DistractionLogResponse> addDistraction(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id,
             @Valid @RequestBody AddDistractionRequest request) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         DistractionLog log = sessionService.addDistraction(userId, id, request.description());
         return ResponseEntity.status(HttpStatus.CREATED).body(
                 new DistractionLogResponse(log.getId(), log.getDescription(), log.getLoggedAt()));
     }
+
+    /**
+     * POST /api/v1/sessions/{id}/distractions/batch - Add several distraction logs at once.
+     * Answers 202 without ids when the write-behind buffer is enabled.
+     */
+    @PostMapping("/{id}/distractions/batch")
+    public ResponseEntity<List<DistractionLogResponse>> addDistractions(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long id,
+            @Valid @RequestBody AddDistractionsRequest request) {
+
+        Long userId = principal.userId();
+        List<String> descriptions = request.distractions().stream()
+                .map(AddDistractionRequest::description)
+                .toList();
+        List<DistractionLogResponse> logs = sessionService.addDistractions(userId, id, descriptions).stream()
+                .map(log -> new DistractionLogResponse(log.getId(), log.getDescription(), log.getLoggedAt()))
+                .toList();
+        HttpStatus status = sessionService.isDistractionBufferEnabled() ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(logs);
+    }
 }
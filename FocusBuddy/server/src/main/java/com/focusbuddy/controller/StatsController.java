@@ -1,14 +1,15 @@
 package com.focusbuddy.controller;
 
 import com.focusbuddy.dto.*;
-import com.focusbuddy.security.CurrentUserService;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.repository.SessionFilter;
+import com.focusbuddy.security.AuthenticatedUser;
 import com.focusbuddy.service.ProductivityService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -22,36 +23,53 @@ import java.time.LocalDate;
 public class StatsController {
 
     private final ProductivityService productivityService;
-    private final CurrentUserService currentUserService;
 
     /**
-     * GET /api/v1/stats?range=DAILY|WEEKLY|MONTHLY
+     * GET /api/v1/stats?range=DAILY|WEEKLY|MONTHLY (default DAILY)
+     * GET /api/v1/stats?from=YYYY-MM-DD&to=YYYY-MM-DD (inclusive, any length)
      */
     @GetMapping
     public ResponseEntity<ProductivityStats> getStats(
-            @AuthenticationPrincipal UserDetails userDetails,
-            @RequestParam(defaultValue = "DAILY") StatsRange range) {
-        Long userId = currentUserService.getUserId(userDetails);
-        ProductivityStats stats = productivityService.getStats(userId, range);
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) StatsRange range,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long userId = principal.userId();
+
+        if (from != null || to != null) {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Both from and to are required for a date range");
+            }
+            if (range != null) {
+                throw new IllegalArgumentException("Use either range or from and to, not both");
+            }
+            return ResponseEntity.ok(productivityService.getStats(userId, from, to));
+        }
+        ProductivityStats stats = productivityService.getStats(userId, range != null ? range : StatsRange.DAILY);
         return ResponseEntity.ok(stats);
     }
 
     /**
-     * GET /api/v1/stats/timeline?from=YYYY-MM-DD&to=YYYY-MM-DD&page=0&size=50
+     * GET /api/v1/stats/timeline?from=YYYY-MM-DD&to=YYYY-MM-DD&status=&sessionType=&cursor=&size=50
      */
     @GetMapping("/timeline")
-    public ResponseEntity<Page<TimelineEntry>> getTimeline(
-            @AuthenticationPrincipal UserDetails userDetails,
+    public ResponseEntity<CursorPage<TimelineEntry>> getTimeline(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) SessionState status,
+            @RequestParam(required = false) SessionType sessionType,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "50") int size) {
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
 
         if (size > 100)
             size = 100;
+        if (size < 1)
+            size = 1;
 
-        Page<TimelineEntry> timeline = productivityService.getTimeline(userId, from, to, page, size);
+        SessionFilter filter = new SessionFilter(status, sessionType, from, to);
+        CursorPage<TimelineEntry> timeline = productivityService.getTimeline(userId, filter, cursor, size);
         return ResponseEntity.ok(timeline);
     }
 }
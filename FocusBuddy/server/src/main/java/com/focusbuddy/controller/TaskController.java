@@ -6,14 +6,13 @@ import com.focusbuddy.dto.response.TaskResponse;
 import com.focusbuddy.model.Task;
 import com.focusbuddy.model.Task.TaskPriority;
 import com.focusbuddy.model.Task.TaskStatus;
-import com.focusbuddy.security.CurrentUserService;
+import com.focusbuddy.security.AuthenticatedUser;
 import com.focusbuddy.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -40,21 +39,20 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
-    private final CurrentUserService currentUserService;
 
     /**
      * Create a new task.
      * 
-     * @param userDetails authenticated user details from JWT
+     * @param principal   authenticated user from JWT claims
      * @param request     task creation request body
      * @return created task with 201 status
      */
     @PostMapping
     public ResponseEntity<TaskResponse> createTask(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @Valid @RequestBody CreateTaskRequest request) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         Task task = taskService.createTask(userId, request);
 
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -66,18 +64,18 @@ public class TaskController {
      * 
      * Supports optional filtering by status or priority.
      * 
-     * @param userDetails authenticated user details from JWT
+     * @param principal   authenticated user from JWT claims
      * @param status      optional status filter (TODO, IN_PROGRESS, COMPLETED)
      * @param priority    optional priority filter (LOW, MEDIUM, HIGH)
      * @return list of matching tasks
      */
     @GetMapping
     public ResponseEntity<List<TaskResponse>> getTasks(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) TaskStatus status,
             @RequestParam(required = false) TaskPriority priority) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         List<Task> tasks;
 
         // Apply filters if provided
@@ -99,16 +97,16 @@ public class TaskController {
     /**
      * Get a specific task by ID.
      * 
-     * @param userDetails authenticated user details from JWT
+     * @param principal   authenticated user from JWT claims
      * @param id          task ID from path
      * @return task details
      */
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponse> getTask(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         Task task = taskService.getTask(userId, id);
 
         return ResponseEntity.ok(TaskResponse.fromEntity(task));
@@ -119,18 +117,18 @@ public class TaskController {
      * 
      * Supports partial updates - only non-null fields are applied.
      * 
-     * @param userDetails authenticated user details from JWT
+     * @param principal   authenticated user from JWT claims
      * @param id          task ID from path
      * @param request     update request with optional fields
      * @return updated task
      */
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> updateTask(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id,
             @Valid @RequestBody UpdateTaskRequest request) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         Task task = taskService.updateTask(userId, id, request);
 
         return ResponseEntity.ok(TaskResponse.fromEntity(task));
@@ -141,16 +139,16 @@ public class TaskController {
      * 
      * Task is marked as deleted but preserved in database.
      * 
-     * @param userDetails authenticated user details from JWT
+     * @param principal   authenticated user from JWT claims
      * @param id          task ID from path
      * @return 204 No Content on success
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         taskService.deleteTask(userId, id);
 
         return ResponseEntity.noContent().build();
@@ -161,14 +159,14 @@ public class TaskController {
      * 
      * Useful for dashboard widgets and notifications.
      * 
-     * @param userDetails authenticated user details from JWT
+     * @param principal   authenticated user from JWT claims
      * @return count of pending tasks
      */
     @GetMapping("/count")
     public ResponseEntity<Long> getPendingTaskCount(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
 
-        Long userId = currentUserService.getUserId(userDetails);
+        Long userId = principal.userId();
         long count = taskService.getPendingTaskCount(userId);
 
         return ResponseEntity.ok(count);
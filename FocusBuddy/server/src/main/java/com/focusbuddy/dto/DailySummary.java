@@ -0,0 +1,32 @@
+package com.focusbuddy.dto;
+
+import com.focusbuddy.model.SessionType;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Seconds and session counts per session type for one day. Every type is
+ * present, with zeros if the user had no such session.
+ */
+public record DailySummary(
+        LocalDate date,
+        Map<SessionType, Long> secondsByType,
+        Map<SessionType, Long> sessionsByType) {
+
+    public long secondsOf(SessionType type) {
+        return secondsByType.get(type);
+    }
+
+    public long sessionsOf(SessionType type) {
+        return sessionsByType.get(type);
+    }
+
+    public long totalSeconds() {
+        return secondsByType.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long totalSessions() {
+        return sessionsByType.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,11 @@
+package com.focusbuddy.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record AddDistractionsRequest(
+        @NotEmpty(message = "At least one distraction is required") @Size(max = 100, message = "At most 100 distractions per request") List<@Valid AddDistractionRequest> distractions) {
+}
@@ -0,0 +1,11 @@
+package com.focusbuddy.dto.response;
+
+/**
+ * Pushed to /user/queue/sessions. {@code session} is the state after the
+ * latest change, or null when this node has no snapshot of it.
+ */
+public record SessionUpdateMessage(
+                String event,
+                Long sessionId,
+                SessionResponse session) {
+}
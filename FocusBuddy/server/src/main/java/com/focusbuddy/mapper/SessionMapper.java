@@ -4,6 +4,7 @@ import com.focusbuddy.dto.response.DistractionLogResponse;
 import com.focusbuddy.dto.response.SessionResponse;
 import com.focusbuddy.model.DistractionLog;
 import com.focusbuddy.model.Session;
+import com.focusbuddy.service.ActiveSession;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -29,6 +30,27 @@ public class SessionMapper {
                 distractionLogs);
     }
 
+    /**
+     * Active sessions have no end time, reflection or recorded duration yet.
+     */
+    public SessionResponse toResponse(ActiveSession session) {
+        List<DistractionLogResponse> distractionLogs = session.distractions().stream()
+                .map(d -> new DistractionLogResponse(d.id(), d.description(), d.loggedAt()))
+                .toList();
+
+        return new SessionResponse(
+                session.sessionId(),
+                session.status().name(),
+                session.taskDescription(),
+                session.plannedDuration(),
+                0,
+                session.startedAt(),
+                null,
+                null,
+                session.sessionType().name(),
+                distractionLogs);
+    }
+
     public List<SessionResponse> toResponseList(List<Session> sessions) {
         return sessions.stream()
                 .map(this::toResponse)
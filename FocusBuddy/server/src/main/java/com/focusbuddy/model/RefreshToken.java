@@ -12,13 +12,16 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "refresh_tokens", indexes = {
         @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
-        @Index(name = "idx_refresh_tokens_hash", columnList = "tokenHash")
+        @Index(name = "idx_refresh_tokens_hash", columnList = "tokenHash"),
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expiresAt"),
+        @Index(name = "idx_refresh_tokens_revoked", columnList = "revokedAt")
 })
 @Data
 @NoArgsConstructor
 public class RefreshToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -18,13 +19,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  */
 @Entity
 @Table(name = "focus_sessions", indexes = {
-        @Index(name = "idx_sessions_user_start", columnList = "user_id, startedAt DESC")
+        @Index(name = "idx_sessions_user_start_id", columnList = "user_id, started_at DESC, id DESC")
 })
 @Data
 @NoArgsConstructor
 public class Session {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "focus_sessions_seq")
+    @SequenceGenerator(name = "focus_sessions_seq", sequenceName = "focus_sessions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -71,7 +73,12 @@ public class Session {
     @Column(name = "session_date")
     private java.time.LocalDate sessionDate;
 
+    /**
+     * Batch-fetched so initializing the logs for a page of sessions costs
+     * one query (up to the 100-row page limit), not one per session.
+     */
     @OneToMany(mappedBy = "session", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<DistractionLog> distractionLogs = new ArrayList<>();
@@ -79,10 +86,25 @@ public class Session {
     @Column(columnDefinition = "TEXT")
     private String reflection;
 
+    /**
+     * Bumped by every write, including the guarded bulk transitions in
+     * SessionRepository, so entity-based writers detect concurrent changes.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Calculate actual focus duration excluding paused time.
      */
     public long getActualFocusSeconds() {
+        return actualFocusSeconds(startedAt, endedAt, totalPausedSeconds);
+    }
+
+    /**
+     * Same as {@link #getActualFocusSeconds()}, for projections that do not load the entity.
+     */
+    public static long actualFocusSeconds(LocalDateTime startedAt, LocalDateTime endedAt, int totalPausedSeconds) {
         if (startedAt == null)
             return 0;
         LocalDateTime end = endedAt != null ? endedAt : LocalDateTime.now();
@@ -94,13 +116,19 @@ public class Session {
      * Transition to new state with validation.
      */
     public void transitionTo(SessionState newState) {
+        transitionTo(newState, LocalDateTime.now());
+    }
+
+    /**
+     * Transition to new state as of {@code now}, mirroring the guarded
+     * updates in SessionRepository.
+     */
+    public void transitionTo(SessionState newState, LocalDateTime now) {
         if (!status.canTransitionTo(newState)) {
             throw new IllegalStateException(
                     "Cannot transition from " + status + " to " + newState);
         }
 
-        LocalDateTime now = LocalDateTime.now();
-
         switch (newState) {
             case PAUSED -> {
                 pausedAt = now;
@@ -1,5 +1,8 @@
 package com.focusbuddy.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Focus session lifecycle states.
  * Valid transitions: STARTED → PAUSED → RESUMED → ENDED
@@ -20,6 +23,19 @@ public enum SessionState {
         };
     }
 
+    /**
+     * States from which {@code target} can be reached.
+     */
+    public static Set<SessionState> sourcesOf(SessionState target) {
+        Set<SessionState> sources = EnumSet.noneOf(SessionState.class);
+        for (SessionState state : values()) {
+            if (state.canTransitionTo(target)) {
+                sources.add(state);
+            }
+        }
+        return sources;
+    }
+
     public boolean isActive() {
         return this != COMPLETED && this != ABORTED;
     }
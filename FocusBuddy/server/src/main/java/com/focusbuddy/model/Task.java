@@ -1,6 +1,8 @@
 package com.focusbuddy.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
@@ -27,6 +29,7 @@ import java.time.LocalDateTime;
  * @author FocusBuddy Team
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tasks")
 @Table(name = "tasks", indexes = {
         @Index(name = "idx_task_user_id", columnList = "user_id"),
         @Index(name = "idx_task_status", columnList = "status"),
@@ -37,7 +40,8 @@ import java.time.LocalDateTime;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     /**
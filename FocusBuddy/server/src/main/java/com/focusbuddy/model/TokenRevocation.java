@@ -0,0 +1,25 @@
+package com.focusbuddy.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Per-user revocation epoch: access tokens issued at or before
+ * {@code epoch} are rejected. Written on "logout all devices".
+ */
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_epoch", columnList = "epoch")
+})
+@Data
+@NoArgsConstructor
+public class TokenRevocation {
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private Instant epoch;
+}
@@ -0,0 +1,86 @@
+package com.focusbuddy.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Per-user rollup of one day's sessions, keyed by the day they started.
+ * Kept current by SessionService in the same transaction as the session
+ * change; UserDailyStatsService.rebuild recomputes it from focus_sessions.
+ */
+@Entity
+@Table(name = "user_daily_stats")
+@IdClass(UserDailyStats.Key.class)
+@Data
+@NoArgsConstructor
+public class UserDailyStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(name = "sessions_started", nullable = false)
+    private int sessionsStarted;
+
+    @Column(name = "sessions_completed", nullable = false)
+    private int sessionsCompleted;
+
+    /**
+     * Seconds of completed sessions, by session type.
+     */
+    @Column(name = "focus_seconds", nullable = false)
+    private long focusSeconds;
+
+    @Column(name = "break_seconds", nullable = false)
+    private long breakSeconds;
+
+    @Column(name = "meeting_seconds", nullable = false)
+    private long meetingSeconds;
+
+    @Column(name = "other_seconds", nullable = false)
+    private long otherSeconds;
+
+    /**
+     * Distractions of sessions that have ended.
+     */
+    @Column(name = "distraction_count", nullable = false)
+    private int distractionCount;
+
+    /*
+     * Running totals over this user's days up to and including this one, so
+     * any range is the difference of two rows. A day is active once it has
+     * a completed session.
+     */
+
+    @Column(name = "cum_sessions_started", nullable = false)
+    private long cumSessionsStarted;
+
+    @Column(name = "cum_sessions_completed", nullable = false)
+    private long cumSessionsCompleted;
+
+    @Column(name = "cum_completed_seconds", nullable = false)
+    private long cumCompletedSeconds;
+
+    @Column(name = "cum_active_days", nullable = false)
+    private int cumActiveDays;
+
+    public long getCompletedSeconds() {
+        return focusSeconds + breakSeconds + meetingSeconds + otherSeconds;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate statDate;
+    }
+}
@@ -0,0 +1,18 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.SessionState;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fields of an active session that determine when it is overdue.
+ */
+public record ActiveSessionTiming(
+        Long sessionId,
+        Long userId,
+        SessionState status,
+        LocalDateTime startedAt,
+        LocalDateTime pausedAt,
+        int plannedDuration,
+        int totalPausedSeconds) {
+}
@@ -2,6 +2,7 @@ package com.focusbuddy.repository;
 
 import com.focusbuddy.model.RefreshToken;
 import com.focusbuddy.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,7 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long>, RefreshTokenRotation {
 
     Optional<RefreshToken> findByTokenHash(String tokenHash);
 
@@ -23,7 +24,19 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Query("UPDATE RefreshToken rt SET rt.revokedAt = :now WHERE rt.user = :user AND rt.revokedAt IS NULL")
     int revokeAllByUser(@Param("user") User user, @Param("now") LocalDateTime now);
 
+    /**
+     * Ids of tokens that can be purged: active tokens past their expiry and
+     * revoked tokens older than the retention window. Revoked rows are kept
+     * for a while so that replaying them is still detected as reuse.
+     */
+    @Query("SELECT rt.id FROM RefreshToken rt " +
+            "WHERE (rt.revokedAt IS NULL AND rt.expiresAt < :now) OR rt.revokedAt < :revokedBefore " +
+            "ORDER BY rt.id")
+    List<Long> findPurgeableIds(@Param("now") LocalDateTime now,
+                                @Param("revokedBefore") LocalDateTime revokedBefore,
+                                Pageable pageable);
+
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
-    int deleteExpiredTokens(@Param("now") LocalDateTime now);
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
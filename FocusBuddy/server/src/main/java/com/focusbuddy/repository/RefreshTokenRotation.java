@@ -0,0 +1,18 @@
+package com.focusbuddy.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Conditional revoke that also reports the token's owner, in one statement.
+ */
+public interface RefreshTokenRotation {
+
+    /**
+     * Revoke a token only if it is still active. A present result is the
+     * single source of truth for rotation: this caller won, and the value
+     * is the owner's id. Empty means the token was unknown, expired or
+     * already used.
+     */
+    Optional<Long> revokeIfActive(String tokenHash, LocalDateTime now);
+}
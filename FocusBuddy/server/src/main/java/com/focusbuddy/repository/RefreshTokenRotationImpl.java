@@ -0,0 +1,45 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.RefreshToken;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * PostgreSQL returns the owner with UPDATE ... RETURNING; H2 has no
+ * RETURNING, but reads the updated row back in the same statement through
+ * a FINAL TABLE data change delta table.
+ */
+class RefreshTokenRotationImpl implements RefreshTokenRotation {
+
+    private static final String REVOKE_IF_ACTIVE = "UPDATE refresh_tokens SET revoked_at = :now "
+            + "WHERE token_hash = :tokenHash AND revoked_at IS NULL AND expires_at > :now";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Long> revokeIfActive(String tokenHash, LocalDateTime now) {
+        String sql = isH2()
+                ? "SELECT user_id FROM FINAL TABLE (" + REVOKE_IF_ACTIVE + ")"
+                : REVOKE_IF_ACTIVE + " RETURNING user_id";
+        List<?> owners = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(RefreshToken.class)
+                .setParameter("tokenHash", tokenHash)
+                .setParameter("now", now)
+                .getResultList();
+        return owners.stream().findFirst().map(owner -> ((Number) owner).longValue());
+    }
+
+    private boolean isH2() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof H2Dialect;
+    }
+}
@@ -0,0 +1,49 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.Session;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a user's session list, ordered by (startedAt, id)
+ * descending. Handed to clients as an opaque string.
+ */
+public record SessionCursor(LocalDateTime startedAt, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static SessionCursor of(Session session) {
+        return new SessionCursor(session.getStartedAt(), session.getId());
+    }
+
+    public static SessionCursor of(TimelineRow row) {
+        return new SessionCursor(row.startedAt(), row.id());
+    }
+
+    public String encode() {
+        String raw = startedAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for a missing/blank cursor
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static SessionCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new SessionCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the history export: a session joined with one of its
+ * distraction logs, or with nulls when it has none. Rows of a session are
+ * adjacent in the export stream.
+ */
+public record SessionExportRow(
+        Long sessionId,
+        SessionState status,
+        SessionType sessionType,
+        String taskDescription,
+        int plannedDuration,
+        int actualDuration,
+        LocalDateTime startedAt,
+        LocalDateTime endedAt,
+        String reflection,
+        Long distractionId,
+        String distractionDescription,
+        LocalDateTime distractionLoggedAt) {
+}
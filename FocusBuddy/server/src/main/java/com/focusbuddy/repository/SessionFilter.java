@@ -0,0 +1,46 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Optional filters for session list queries. Null fields match everything;
+ * the date range is inclusive on both ends.
+ */
+public record SessionFilter(SessionState status, SessionType sessionType, LocalDate from, LocalDate to) {
+
+    // Open-ended ranges are bounded by constants so the keyset query keeps a single shape
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    public SessionFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+    }
+
+    public static SessionFilter none() {
+        return new SessionFilter(null, null, null, null);
+    }
+
+    Set<SessionState> statuses() {
+        return status != null ? EnumSet.of(status) : EnumSet.allOf(SessionState.class);
+    }
+
+    Set<SessionType> sessionTypes() {
+        return sessionType != null ? EnumSet.of(sessionType) : EnumSet.allOf(SessionType.class);
+    }
+
+    LocalDateTime startInclusive() {
+        return from != null ? from.atStartOfDay() : EARLIEST;
+    }
+
+    LocalDateTime endExclusive() {
+        return to != null ? to.plusDays(1).atStartOfDay() : LATEST;
+    }
+}
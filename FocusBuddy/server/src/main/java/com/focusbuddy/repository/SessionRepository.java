@@ -3,53 +3,194 @@ package com.focusbuddy.repository;
 import com.focusbuddy.model.Session;
 import com.focusbuddy.model.SessionState;
 import com.focusbuddy.model.SessionType;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
 
         Optional<Session> findByUserIdAndStatusNot(Long userId, SessionState status);
 
-        @Query("SELECT s FROM Session s WHERE s.user.id = :userId AND s.status NOT IN (com.focusbuddy.model.SessionState.COMPLETED, com.focusbuddy.model.SessionState.ABORTED)")
-        Optional<Session> findActiveSessionByUserId(@Param("userId") Long userId);
+        @Query("SELECT COUNT(s) > 0 FROM Session s WHERE s.id = :id AND s.status NOT IN (com.focusbuddy.model.SessionState.COMPLETED, com.focusbuddy.model.SessionState.ABORTED)")
+        boolean existsActiveById(@Param("id") Long id);
 
-        List<Session> findByUserIdOrderByStartedAtDesc(Long userId);
+        @Query("SELECT DISTINCT s FROM Session s LEFT JOIN FETCH s.distractionLogs WHERE s.status NOT IN (com.focusbuddy.model.SessionState.COMPLETED, com.focusbuddy.model.SessionState.ABORTED)")
+        List<Session> findAllActiveWithDistractionLogs();
 
-        @Query("SELECT s FROM Session s WHERE s.user.id = :userId " +
-                        "AND s.startedAt BETWEEN :start AND :end ORDER BY s.startedAt DESC")
-        List<Session> findByUserIdAndStartedAtBetween(
-                        @Param("userId") Long userId,
-                        @Param("start") LocalDateTime start,
-                        @Param("end") LocalDateTime end);
+        @Query("SELECT new com.focusbuddy.repository.ActiveSessionTiming(s.id, s.user.id, s.status, s.startedAt, " +
+                        "s.pausedAt, s.plannedDuration, s.totalPausedSeconds) FROM Session s " +
+                        "WHERE s.status NOT IN (com.focusbuddy.model.SessionState.COMPLETED, com.focusbuddy.model.SessionState.ABORTED)")
+        List<ActiveSessionTiming> findAllActiveTimings();
+
+        @Query("SELECT new com.focusbuddy.repository.ActiveSessionTiming(s.id, s.user.id, s.status, s.startedAt, " +
+                        "s.pausedAt, s.plannedDuration, s.totalPausedSeconds) FROM Session s " +
+                        "WHERE s.user.id = :userId AND s.status NOT IN (com.focusbuddy.model.SessionState.COMPLETED, com.focusbuddy.model.SessionState.ABORTED)")
+        Optional<ActiveSessionTiming> findActiveTimingByUserId(@Param("userId") Long userId);
+
+        @Lock(LockModeType.OPTIMISTIC)
+        Optional<Session> findLockedById(Long id);
+
+        /**
+         * Shared row lock: ending the session waits until the caller commits.
+         */
+        @Lock(LockModeType.PESSIMISTIC_READ)
+        Optional<Session> findForShareById(Long id);
+
+        @EntityGraph(attributePaths = "distractionLogs")
+        Optional<Session> findWithDistractionLogsById(Long id);
+
+        /*
+         * Guarded state transitions. Each matches on id, owner and the version
+         * the new values were worked out from, so an update count of 0 means
+         * the session is missing, not owned or changed since. All of them
+         * bump the version so entity-based writers see the change, and clear
+         * the persistence context so later reads see the row as updated.
+         */
+
+        @Modifying(clearAutomatically = true)
+        @Query("UPDATE Session s SET s.status = com.focusbuddy.model.SessionState.PAUSED, " +
+                        "s.pausedAt = :now, s.version = s.version + 1 " +
+                        "WHERE s.id = :id AND s.user.id = :userId AND s.version = :version")
+        int pause(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version,
+                        @Param("now") LocalDateTime now);
+
+        @Modifying(clearAutomatically = true)
+        @Query("UPDATE Session s SET s.status = com.focusbuddy.model.SessionState.RESUMED, " +
+                        "s.totalPausedSeconds = :totalPausedSeconds, s.resumedAt = :now, s.pausedAt = null, " +
+                        "s.version = s.version + 1 " +
+                        "WHERE s.id = :id AND s.user.id = :userId AND s.version = :version")
+        int resume(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version,
+                        @Param("totalPausedSeconds") int totalPausedSeconds, @Param("now") LocalDateTime now);
+
+        @Modifying(clearAutomatically = true)
+        @Query("UPDATE Session s SET s.status = :target, s.reflection = :reflection, " +
+                        "s.totalPausedSeconds = :totalPausedSeconds, s.actualDuration = :actualDuration, " +
+                        "s.endedAt = :now, s.version = s.version + 1 " +
+                        "WHERE s.id = :id AND s.user.id = :userId AND s.version = :version")
+        int end(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version,
+                        @Param("target") SessionState target, @Param("reflection") String reflection,
+                        @Param("totalPausedSeconds") int totalPausedSeconds,
+                        @Param("actualDuration") int actualDuration, @Param("now") LocalDateTime now);
+
+        /**
+         * One keyset page of a user's sessions, newest first. Matches the
+         * (user_id, started_at DESC, id DESC) index, so a page costs the same
+         * however deep it is and no count query is needed.
+         */
+        default List<Session> findPage(Long userId, SessionFilter filter, SessionCursor after, int limit) {
+                LocalDateTime end = filter.endExclusive();
+                return findPage(userId, filter.statuses(), filter.sessionTypes(),
+                                filter.startInclusive(), end,
+                                after != null ? after.startedAt() : end,
+                                after != null ? after.id() : 0L,
+                                Limit.of(limit));
+        }
 
         @Query("SELECT s FROM Session s WHERE s.user.id = :userId " +
-                        "AND s.startedAt BETWEEN :start AND :end")
-        Page<Session> findByUserIdAndStartedAtBetweenPaged(
-                        @Param("userId") Long userId,
-                        @Param("start") LocalDateTime start,
-                        @Param("end") LocalDateTime end,
-                        Pageable pageable);
+                        "AND s.status IN :statuses AND s.sessionType IN :types " +
+                        "AND s.startedAt >= :from AND s.startedAt < :to " +
+                        "AND (s.startedAt < :afterStartedAt OR (s.startedAt = :afterStartedAt AND s.id < :afterId)) " +
+                        "ORDER BY s.startedAt DESC, s.id DESC")
+        List<Session> findPage(@Param("userId") Long userId,
+                        @Param("statuses") Collection<SessionState> statuses,
+                        @Param("types") Collection<SessionType> types,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("afterStartedAt") LocalDateTime afterStartedAt,
+                        @Param("afterId") Long afterId,
+                        Limit limit);
+
+        /**
+         * Keyset page of the timeline, with the distraction count as a
+         * correlated subquery instead of a collection load per row.
+         */
+        default List<TimelineRow> findTimelinePage(Long userId, SessionFilter filter, SessionCursor after, int limit) {
+                LocalDateTime end = filter.endExclusive();
+                return findTimelinePage(userId, filter.statuses(), filter.sessionTypes(),
+                                filter.startInclusive(), end,
+                                after != null ? after.startedAt() : end,
+                                after != null ? after.id() : 0L,
+                                Limit.of(limit));
+        }
+
+        @Query("SELECT new com.focusbuddy.repository.TimelineRow(s.id, s.taskDescription, s.status, " +
+                        "s.startedAt, s.endedAt, s.totalPausedSeconds, " +
+                        "(SELECT COUNT(d) FROM DistractionLog d WHERE d.session = s)) " +
+                        "FROM Session s WHERE s.user.id = :userId " +
+                        "AND s.status IN :statuses AND s.sessionType IN :types " +
+                        "AND s.startedAt >= :from AND s.startedAt < :to " +
+                        "AND (s.startedAt < :afterStartedAt OR (s.startedAt = :afterStartedAt AND s.id < :afterId)) " +
+                        "ORDER BY s.startedAt DESC, s.id DESC")
+        List<TimelineRow> findTimelinePage(@Param("userId") Long userId,
+                        @Param("statuses") Collection<SessionState> statuses,
+                        @Param("types") Collection<SessionType> types,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("afterStartedAt") LocalDateTime afterStartedAt,
+                        @Param("afterId") Long afterId,
+                        Limit limit);
+
+        /**
+         * Full history of a user as flat rows, oldest first, for streaming.
+         * Projections are never managed, so the persistence context stays
+         * empty however many rows pass through. Must be consumed inside a
+         * transaction and closed.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+        })
+        @Query("SELECT new com.focusbuddy.repository.SessionExportRow(s.id, s.status, s.sessionType, " +
+                        "s.taskDescription, s.plannedDuration, s.actualDuration, s.startedAt, s.endedAt, " +
+                        "s.reflection, d.id, d.description, d.loggedAt) " +
+                        "FROM Session s LEFT JOIN s.distractionLogs d WHERE s.user.id = :userId " +
+                        "ORDER BY s.startedAt, s.id, d.id")
+        Stream<SessionExportRow> streamExportRows(@Param("userId") Long userId);
 
         @Query("SELECT COUNT(s) FROM Session s WHERE s.user.id = :userId " +
                         "AND s.status = 'COMPLETED' AND s.startedAt >= :since")
         long countCompletedSessionsSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
 
-        @Query("SELECT s FROM Session s WHERE s.user.id = :userId AND s.sessionDate = :date ORDER BY s.startedAt DESC")
-        List<Session> findAllByUserIdAndSessionDate(@Param("userId") Long userId,
-                        @Param("date") java.time.LocalDate date);
+        /**
+         * Sessions started in [from, to), newest first.
+         */
+        @Query("SELECT s FROM Session s WHERE s.user.id = :userId " +
+                        "AND s.startedAt >= :from AND s.startedAt < :to ORDER BY s.startedAt DESC, s.id DESC")
+        List<Session> findStartedBetween(@Param("userId") Long userId,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
 
-        @Query("SELECT SUM(s.actualDuration) FROM Session s WHERE s.user.id = :userId AND s.sessionDate = :date AND s.sessionType = :type")
-        Integer sumActualDurationByUserIdAndDateAndType(
-                        @Param("userId") Long userId,
-                        @Param("date") java.time.LocalDate date,
-                        @Param("type") SessionType type);
+        /**
+         * Session count and seconds per session type for sessions started in
+         * [from, to), in one grouped query. Ended sessions count their stored
+         * actual duration; active ones the time elapsed until {@code now}, less
+         * pauses (including a pause still running), as ending them now would.
+         */
+        @Query("SELECT new com.focusbuddy.repository.SessionTypeTotal(s.sessionType, COUNT(s), " +
+                        "SUM(CASE WHEN s.status IN (com.focusbuddy.model.SessionState.COMPLETED, " +
+                        "com.focusbuddy.model.SessionState.ABORTED) THEN s.actualDuration " +
+                        "ELSE greatest(0, cast((:now - s.startedAt) by second as Integer) - s.totalPausedSeconds " +
+                        "- coalesce(cast((:now - s.pausedAt) by second as Integer), 0)) END)) " +
+                        "FROM Session s WHERE s.user.id = :userId AND s.startedAt >= :from AND s.startedAt < :to " +
+                        "GROUP BY s.sessionType")
+        List<SessionTypeTotal> sumBySessionType(@Param("userId") Long userId,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,13 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.SessionType;
+
+/**
+ * Number of sessions and seconds spent for one session type, aggregated in
+ * the database.
+ */
+public record SessionTypeTotal(
+        SessionType sessionType,
+        long sessions,
+        long seconds) {
+}
@@ -0,0 +1,19 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.SessionState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Timeline projection of a session with its distraction count, read without
+ * loading the entity or its log collection.
+ */
+public record TimelineRow(
+        Long id,
+        String taskDescription,
+        SessionState status,
+        LocalDateTime startedAt,
+        LocalDateTime endedAt,
+        int totalPausedSeconds,
+        long distractionCount) {
+}
@@ -0,0 +1,14 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByEpochAfter(Instant since);
+}
@@ -0,0 +1,113 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.UserDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserDailyStatsRepository extends JpaRepository<UserDailyStats, UserDailyStats.Key> {
+
+    List<UserDailyStats> findByUserIdAndStatDateBetween(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Add to an existing day in place, so concurrent writers to the same
+     * row cannot lose each other's updates. Returns 0 if the day has no row yet.
+     */
+    @Modifying
+    @Query("UPDATE UserDailyStats d SET d.sessionsStarted = d.sessionsStarted + :started, " +
+            "d.sessionsCompleted = d.sessionsCompleted + :completed, " +
+            "d.focusSeconds = d.focusSeconds + :focus, d.breakSeconds = d.breakSeconds + :breaks, " +
+            "d.meetingSeconds = d.meetingSeconds + :meeting, d.otherSeconds = d.otherSeconds + :other, " +
+            "d.distractionCount = d.distractionCount + :distractions " +
+            "WHERE d.userId = :userId AND d.statDate = :date")
+    int increment(@Param("userId") Long userId, @Param("date") LocalDate date,
+            @Param("started") int started, @Param("completed") int completed,
+            @Param("focus") long focus, @Param("breaks") long breaks,
+            @Param("meeting") long meeting, @Param("other") long other,
+            @Param("distractions") int distractions);
+
+    /**
+     * Create an empty day whose running totals carry over from the user's
+     * latest earlier day.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_stats (user_id, stat_date, cum_sessions_started, " +
+            "cum_sessions_completed, cum_completed_seconds, cum_active_days) " +
+            "SELECT :userId, :date, COALESCE(MAX(p.cum_sessions_started), 0), " +
+            "COALESCE(MAX(p.cum_sessions_completed), 0), COALESCE(MAX(p.cum_completed_seconds), 0), " +
+            "COALESCE(MAX(p.cum_active_days), 0) " +
+            "FROM user_daily_stats p WHERE p.user_id = :userId AND p.stat_date = (" +
+            "SELECT MAX(q.stat_date) FROM user_daily_stats q WHERE q.user_id = :userId AND q.stat_date < :date)",
+            nativeQuery = true)
+    int insertDay(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    @Query("SELECT d.sessionsCompleted FROM UserDailyStats d WHERE d.userId = :userId AND d.statDate = :date")
+    int findSessionsCompleted(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    /**
+     * Carry a change on {@code date} into the running totals of that day and
+     * every later one.
+     */
+    @Modifying
+    @Query("UPDATE UserDailyStats d SET d.cumSessionsStarted = d.cumSessionsStarted + :started, " +
+            "d.cumSessionsCompleted = d.cumSessionsCompleted + :completed, " +
+            "d.cumCompletedSeconds = d.cumCompletedSeconds + :seconds, " +
+            "d.cumActiveDays = d.cumActiveDays + :activeDays " +
+            "WHERE d.userId = :userId AND d.statDate >= :date")
+    int addToRunningTotals(@Param("userId") Long userId, @Param("date") LocalDate date,
+            @Param("started") int started, @Param("completed") int completed,
+            @Param("seconds") long seconds, @Param("activeDays") int activeDays);
+
+    /**
+     * The user's latest day on or before {@code date}; its running totals
+     * cover everything up to {@code date}.
+     */
+    Optional<UserDailyStats> findFirstByUserIdAndStatDateLessThanEqualOrderByStatDateDesc(Long userId,
+            LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM UserDailyStats d WHERE d.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Recompute every day of a user from focus_sessions; same aggregate as
+     * the V10 backfill, with the V11 running totals. Run after
+     * {@link #deleteAllByUserId}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_stats (user_id, stat_date, sessions_started, sessions_completed, " +
+            "focus_seconds, break_seconds, meeting_seconds, other_seconds, distraction_count, " +
+            "cum_sessions_started, cum_sessions_completed, cum_completed_seconds, cum_active_days) " +
+            "SELECT a.user_id, a.stat_date, a.sessions_started, a.sessions_completed, " +
+            "a.focus_seconds, a.break_seconds, a.meeting_seconds, a.other_seconds, a.distraction_count, " +
+            "SUM(a.sessions_started) OVER (ORDER BY a.stat_date), " +
+            "SUM(a.sessions_completed) OVER (ORDER BY a.stat_date), " +
+            "SUM(a.focus_seconds + a.break_seconds + a.meeting_seconds + a.other_seconds) OVER (ORDER BY a.stat_date), " +
+            "SUM(CASE WHEN a.sessions_completed > 0 THEN 1 ELSE 0 END) OVER (ORDER BY a.stat_date) " +
+            "FROM (SELECT s.user_id AS user_id, CAST(s.started_at AS DATE) AS stat_date, " +
+            "COUNT(*) AS sessions_started, " +
+            "SUM(CASE WHEN s.status = 'COMPLETED' THEN 1 ELSE 0 END) AS sessions_completed, " +
+            "SUM(CASE WHEN s.status = 'COMPLETED' AND s.session_type = 'FOCUS' THEN COALESCE(s.actual_duration, 0) ELSE 0 END) AS focus_seconds, " +
+            "SUM(CASE WHEN s.status = 'COMPLETED' AND s.session_type = 'BREAK' THEN COALESCE(s.actual_duration, 0) ELSE 0 END) AS break_seconds, " +
+            "SUM(CASE WHEN s.status = 'COMPLETED' AND s.session_type = 'MEETING' THEN COALESCE(s.actual_duration, 0) ELSE 0 END) AS meeting_seconds, " +
+            "SUM(CASE WHEN s.status = 'COMPLETED' AND s.session_type = 'OTHER' THEN COALESCE(s.actual_duration, 0) ELSE 0 END) AS other_seconds, " +
+            "SUM(CASE WHEN s.status IN ('COMPLETED', 'ABORTED') THEN COALESCE(d.distractions, 0) ELSE 0 END) AS distraction_count " +
+            "FROM focus_sessions s " +
+            "LEFT JOIN (SELECT dl.session_id, COUNT(*) AS distractions FROM distraction_logs dl " +
+            "JOIN focus_sessions fs ON fs.id = dl.session_id WHERE fs.user_id = :userId " +
+            "GROUP BY dl.session_id) d ON d.session_id = s.id " +
+            "WHERE s.user_id = :userId " +
+            "GROUP BY s.user_id, CAST(s.started_at AS DATE)) a",
+            nativeQuery = true)
+    int rebuild(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT s.user.id FROM Session s")
+    List<Long> findUserIdsWithSessions();
+}
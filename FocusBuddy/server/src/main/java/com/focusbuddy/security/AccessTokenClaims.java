@@ -0,0 +1,15 @@
+package com.focusbuddy.security;
+
+import java.time.Instant;
+
+/**
+ * Verified contents of an access token.
+ * Produced once per token by {@link JwtTokenProvider#verifyAccessToken(String)}.
+ */
+public record AccessTokenClaims(
+        String email,
+        Long userId,
+        String role,
+        Instant issuedAt,
+        Instant expiresAt) {
+}
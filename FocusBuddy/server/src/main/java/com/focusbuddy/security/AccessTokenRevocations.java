@@ -0,0 +1,95 @@
+package com.focusbuddy.security;
+
+import com.focusbuddy.model.TokenRevocation;
+import com.focusbuddy.repository.TokenRevocationRepository;
+import com.focusbuddy.util.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Per-user revocation epochs for access tokens.
+ *
+ * "Logout all devices" stores an epoch for the user; every access token
+ * issued at or before it is rejected. Epochs live in a bounded in-memory
+ * map loaded lazily from the database, so checking a request is a single
+ * map lookup. Other nodes pick up new epochs by polling the table.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessTokenRevocations {
+
+    /** Marker for users that never revoked their tokens (Caffeine does not cache nulls). */
+    private static final Instant NONE = Instant.EPOCH;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    @Value("${app.jwt.revocation.cache-size:100000}")
+    private long cacheSize;
+
+    @Value("${app.jwt.revocation.poll-overlap:PT10S}")
+    private Duration pollOverlap;
+
+    private LoadingCache<Long, Instant> epochs;
+    private volatile Instant pollWatermark;
+
+    @PostConstruct
+    void init() {
+        epochs = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build(userId -> tokenRevocationRepository.findById(userId)
+                        .map(TokenRevocation::getEpoch)
+                        .orElse(NONE));
+        pollWatermark = Instant.now();
+    }
+
+    /**
+     * True when the token was issued at or before the user's revocation epoch.
+     */
+    public boolean isRevoked(AccessTokenClaims claims) {
+        Instant epoch = epochs.get(claims.userId());
+        if (NONE.equals(epoch)) {
+            return false;
+        }
+        return claims.issuedAt() == null || !claims.issuedAt().isAfter(epoch);
+    }
+
+    /**
+     * Invalidate every access token issued to the user up to now.
+     *
+     * The epoch has millisecond precision to match the iat_ms claim, so a
+     * token from a login right after the revocation stays valid. The local
+     * map is updated after the surrounding transaction commits; a rollback
+     * leaves it untouched.
+     */
+    public void revokeAll(Long userId) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setEpoch(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        tokenRevocationRepository.save(revocation);
+        Instant epoch = revocation.getEpoch();
+        TransactionHooks.afterCommit(() -> epochs.put(userId, epoch));
+    }
+
+    /**
+     * Pull epochs written by other nodes. The overlap re-reads a short window
+     * so that clock skew between nodes cannot make an epoch slip through.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.poll-interval:PT5S}")
+    public void pollRevocations() {
+        Instant now = Instant.now();
+        for (TokenRevocation revocation : tokenRevocationRepository.findByEpochAfter(pollWatermark.minus(pollOverlap))) {
+            epochs.asMap().merge(revocation.getUserId(), revocation.getEpoch(),
+                    (current, polled) -> polled.isAfter(current) ? polled : current);
+        }
+        pollWatermark = now;
+    }
+}
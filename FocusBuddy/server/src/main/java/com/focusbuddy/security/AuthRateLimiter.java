@@ -0,0 +1,78 @@
+package com.focusbuddy.security;
+
+import com.focusbuddy.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits for the unauthenticated auth endpoints, which hit BCrypt or
+ * the refresh token table on every call. Clients are limited per IP
+ * (AuthRateLimitFilter) and per target email (AuthController), so neither a
+ * single source nor a botnet aimed at one account can monopolise the CPU.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimiter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${app.security.rate-limit.ip.refill-period:PT1M}")
+    private Duration ipRefillPeriod;
+
+    @Value("${app.security.rate-limit.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${app.security.rate-limit.email.refill-period:PT1M}")
+    private Duration emailRefillPeriod;
+
+    @Value("${app.security.rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    private TokenBucketRateLimiter byIp;
+    private TokenBucketRateLimiter byEmail;
+    private Counter ipRejections;
+    private Counter emailRejections;
+
+    @PostConstruct
+    void init() {
+        byIp = new TokenBucketRateLimiter(ipCapacity, ipRefillPeriod, maxKeys, System::nanoTime);
+        byEmail = new TokenBucketRateLimiter(emailCapacity, emailRefillPeriod, maxKeys, System::nanoTime);
+        ipRejections = meterRegistry.counter("auth.ratelimit.rejected", "key", "ip");
+        emailRejections = meterRegistry.counter("auth.ratelimit.rejected", "key", "email");
+    }
+
+    public void checkIp(String ip) {
+        long waitNanos = byIp.tryAcquire(ip);
+        if (waitNanos > 0) {
+            ipRejections.increment();
+            throw new TooManyRequestsException("Too many requests, please retry later", retryAfterSeconds(waitNanos));
+        }
+    }
+
+    public void checkEmail(String email) {
+        if (email == null) {
+            return;
+        }
+        long waitNanos = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        if (waitNanos > 0) {
+            emailRejections.increment();
+            throw new TooManyRequestsException("Too many attempts for this account, please retry later",
+                    retryAfterSeconds(waitNanos));
+        }
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
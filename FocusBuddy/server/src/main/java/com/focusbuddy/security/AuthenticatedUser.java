@@ -0,0 +1,33 @@
+package com.focusbuddy.security;
+
+import com.focusbuddy.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Authenticated principal built from access token claims.
+ * Controllers receive it via @AuthenticationPrincipal, so the user ID is
+ * available without loading the user from the database.
+ */
+public record AuthenticatedUser(
+        Long userId,
+        String email,
+        Role role) implements Principal {
+
+    public static AuthenticatedUser fromClaims(AccessTokenClaims claims) {
+        Role role = claims.role() != null ? Role.valueOf(claims.role()) : Role.USER;
+        return new AuthenticatedUser(claims.userId(), claims.email(), role);
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
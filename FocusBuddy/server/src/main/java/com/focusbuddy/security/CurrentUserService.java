@@ -1,24 +0,0 @@
-package com.focusbuddy.security;
-
-import com.focusbuddy.exception.ResourceNotFoundException;
-import com.focusbuddy.model.User;
-import com.focusbuddy.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.stereotype.Service;
-
-@Service
-@RequiredArgsConstructor
-public class CurrentUserService {
-
-    private final UserRepository userRepository;
-
-    public Long getUserId(UserDetails principal) {
-        return getUser(principal).getId();
-    }
-
-    public User getUser(UserDetails principal) {
-        return userRepository.findByEmail(principal.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-    }
-}
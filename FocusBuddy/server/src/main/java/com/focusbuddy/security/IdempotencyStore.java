@@ -0,0 +1,128 @@
+package com.focusbuddy.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Responses to mutating requests, per user and Idempotency-Key.
+ *
+ * The first request with a key claims an entry and completes it with its
+ * response; retries with the same key get that response back, and
+ * retries arriving while it is still running wait on it instead of
+ * executing again. Entries are bounded by the bytes of the responses
+ * they hold, and expire a fixed time after they were claimed. Hit rates
+ * are on the http.idempotency cache metrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    public record Key(Long userId, String idempotencyKey) {
+    }
+
+    /**
+     * A response as sent, replayed verbatim to retries.
+     */
+    public record StoredResponse(int status, String contentType, Map<String, List<String>> headers, byte[] body) {
+    }
+
+    /**
+     * A claimed key. The response completes with null if the original
+     * request produced nothing worth replaying (a 5xx, an exception).
+     */
+    public record Entry(String fingerprint, CompletableFuture<StoredResponse> response) {
+    }
+
+    /**
+     * The entry for a key and whether the caller claimed it, i.e. must run
+     * the request and {@link #complete} the entry.
+     */
+    public record Claim(Entry entry, boolean owner) {
+    }
+
+    /**
+     * Rough cost of an entry besides its body: key, fingerprint, headers.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.idempotency.max-stored-bytes:33554432}")
+    private long maxStoredBytes;
+
+    @Value("${app.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    private Cache<Key, Entry> entries;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumWeight(maxStoredBytes)
+                .weigher(IdempotencyStore::weigh)
+                .expireAfter(new SinceClaimed(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "http.idempotency");
+    }
+
+    public Claim claim(Key key, String fingerprint) {
+        Entry created = new Entry(fingerprint, new CompletableFuture<>());
+        Entry entry = entries.get(key, k -> created);
+        return new Claim(entry, entry == created);
+    }
+
+    /**
+     * Publish the owner's response to waiting and later retries. A null
+     * response releases the key so the next retry runs the request again.
+     */
+    public void complete(Key key, Entry entry, StoredResponse response) {
+        entry.response().complete(response);
+        if (response == null) {
+            entries.asMap().remove(key, entry);
+        } else {
+            // Re-put so the entry is weighed with its body
+            entries.asMap().replace(key, entry, entry);
+        }
+    }
+
+    private static int weigh(Key key, Entry entry) {
+        StoredResponse response = entry.response().getNow(null);
+        int bodyBytes = response != null ? response.body().length : 0;
+        return ENTRY_OVERHEAD_BYTES + key.idempotencyKey().length() + bodyBytes;
+    }
+
+    /**
+     * Expires entries a fixed time after they were claimed; the re-put on
+     * completion does not extend it.
+     */
+    private record SinceClaimed(Duration ttl) implements Expiry<Key, Entry> {
+
+        @Override
+        public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,26 +1,55 @@
 package com.focusbuddy.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Authenticates requests from the bearer token's claims.
+ *
+ * The hot path does no logging: latency goes to auth.filter.duration and
+ * outcomes to auth.jwt.validation. Turning this logger to DEBUG (e.g. via
+ * /actuator/loggers) logs a sample of requests, app.jwt.debug-sample-rate.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final AccessTokenRevocations accessTokenRevocations;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.debug-sample-rate:0.01}")
+    private double debugSampleRate;
+
+    private Timer filterTimer;
+
+    @PostConstruct
+    void init() {
+        filterTimer = Timer.builder("auth.filter.duration")
+                .description("Time spent authenticating a request from its bearer token")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -33,40 +62,55 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
 
-        // Log every request hitting the filter (INFO level for visibility)
-        logger.info("JWT FILTER RUNNING for URI: " + request.getRequestURI());
-
+        long start = System.nanoTime();
         try {
-            String jwt = extractJwtFromRequest(request);
-
-            if (jwt != null) {
-                logger.info("JWT token found in request");
-            } else {
-                logger.info("No JWT token in request");
-            }
+            authenticate(request);
+        } catch (Exception e) {
+            log.error("Cannot set user authentication: {}", e.getMessage(), e);
+        } finally {
+            filterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
-                logger.info("JWT VALID FOR USER: " + username);
+        filterChain.doFilter(request, response);
+    }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+    private void authenticate(HttpServletRequest request) {
+        String jwt = extractJwtFromRequest(request);
+        if (!StringUtils.hasText(jwt)) {
+            return;
+        }
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        Optional<AccessTokenClaims> claims = jwtTokenProvider.verifyAccessToken(jwt);
+        if (claims.isEmpty() || claims.get().userId() == null) {
+            if (sampled()) {
+                log.debug("Rejected bearer token for {}", request.getRequestURI());
+            }
+            return;
+        }
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                logger.info("AUTHENTICATION SET for: " + username);
-            } else if (jwt != null) {
-                logger.warn("JWT token validation FAILED");
+        if (accessTokenRevocations.isRevoked(claims.get())) {
+            jwtTokenProvider.record(JwtTokenProvider.ValidationOutcome.REVOKED);
+            if (sampled()) {
+                log.debug("Revoked token for user {} on {}", claims.get().userId(), request.getRequestURI());
             }
-        } catch (Exception e) {
-            logger.error("Cannot set user authentication: " + e.getMessage(), e);
+            return;
         }
 
-        filterChain.doFilter(request, response);
+        AuthenticatedUser principal = AuthenticatedUser.fromClaims(claims.get());
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                principal.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        if (sampled()) {
+            log.debug("Authenticated user {} on {}", principal.userId(), request.getRequestURI());
+        }
+    }
+
+    private boolean sampled() {
+        return log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < debugSampleRate;
     }
 
     private String extractJwtFromRequest(HttpServletRequest request) {
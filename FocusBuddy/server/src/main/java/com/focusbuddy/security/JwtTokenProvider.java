@@ -1,37 +1,100 @@
 package com.focusbuddy.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.focusbuddy.model.Role;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * JWT token provider for access tokens.
  * Access tokens are stateless and short-lived.
+ *
+ * The signing key and parser are built once at startup. Verified tokens are
+ * kept in a bounded cache until their own expiry, so repeated requests with
+ * the same token skip signature verification entirely.
+ *
+ * Outcomes are counted in auth.jwt.validation{outcome}; cache hits and
+ * misses are published as cache.gets{cache=auth.jwt.verified}.
  */
+@Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    /**
+     * Result of verifying an access token, used as the metric tag.
+     */
+    public enum ValidationOutcome {
+        VALID, CACHED, REVOKED, EXPIRED, MALFORMED, BAD_SIGNATURE, UNSUPPORTED, EMPTY, ERROR;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.access-expiration-ms}")
     private long accessExpirationMs;
 
-    private SecretKey getSigningKey() {
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, AccessTokenClaims> verifiedTokens;
+    private final Map<ValidationOutcome, Counter> outcomeCounters = new EnumMap<>(ValidationOutcome.class);
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "auth.jwt.verified");
+        for (ValidationOutcome outcome : ValidationOutcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("auth.jwt.validation")
+                    .description("Access token verifications by outcome")
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry));
+        }
     }
 
     /**
      * Generate access token with user details and role.
+     * The standard iat claim has second precision; iat_ms carries the issue
+     * time in milliseconds so revocation epochs can be compared exactly.
      */
     public String generateAccessToken(Long userId, String email, Role role) {
         Date now = new Date();
@@ -41,9 +104,10 @@ public class JwtTokenProvider {
                 .subject(email)
                 .claim("userId", userId)
                 .claim("role", role.name())
+                .claim(ISSUED_AT_MS_CLAIM, now.getTime())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -54,47 +118,97 @@ public class JwtTokenProvider {
         return UUID.randomUUID().toString() + UUID.randomUUID().toString();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = parseClaims(token);
-        return claims.getSubject();
-    }
+    /**
+     * Verify an access token and return its claims.
+     * Each distinct token is parsed at most once while it is cached.
+     */
+    public Optional<AccessTokenClaims> verifyAccessToken(String token) {
+        AccessTokenClaims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            record(ValidationOutcome.CACHED);
+            return Optional.of(cached);
+        }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = parseClaims(token);
-        return claims.get("userId", Long.class);
+        AccessTokenClaims claims = parseAndVerify(token);
+        if (claims != null) {
+            verifiedTokens.put(token, claims);
+        }
+        return Optional.ofNullable(claims);
     }
 
-    public String getRoleFromToken(String token) {
-        Claims claims = parseClaims(token);
-        return claims.get("role", String.class);
+    /**
+     * Count an outcome decided outside the provider (e.g. a revoked token).
+     */
+    public void record(ValidationOutcome outcome) {
+        outcomeCounters.get(outcome).increment();
     }
 
-    public boolean validateToken(String token) {
+    private AccessTokenClaims parseAndVerify(String token) {
+        ValidationOutcome outcome;
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (MalformedJwtException e) {
-            System.out.println("JWT VALIDATION FAILED: Malformed token");
+            Claims claims = parseClaims(token);
+            record(ValidationOutcome.VALID);
+            return new AccessTokenClaims(
+                    claims.getSubject(),
+                    claims.get("userId", Long.class),
+                    claims.get("role", String.class),
+                    issuedAt(claims),
+                    claims.getExpiration().toInstant());
         } catch (ExpiredJwtException e) {
-            System.out.println("JWT VALIDATION FAILED: Token expired");
+            outcome = ValidationOutcome.EXPIRED;
+        } catch (MalformedJwtException e) {
+            outcome = ValidationOutcome.MALFORMED;
+        } catch (SignatureException e) {
+            outcome = ValidationOutcome.BAD_SIGNATURE;
         } catch (UnsupportedJwtException e) {
-            System.out.println("JWT VALIDATION FAILED: Unsupported token");
+            outcome = ValidationOutcome.UNSUPPORTED;
         } catch (IllegalArgumentException e) {
-            System.out.println("JWT VALIDATION FAILED: Empty claims");
+            outcome = ValidationOutcome.EMPTY;
         } catch (Exception e) {
-            System.out.println("JWT VALIDATION FAILED: " + e.getMessage());
+            outcome = ValidationOutcome.ERROR;
         }
-        return false;
+        record(outcome);
+        log.debug("Access token rejected: {}", outcome.tag);
+        return null;
     }
 
     private Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Millisecond issue time, falling back to iat for tokens issued before
+     * iat_ms was added.
+     */
+    private static Instant issuedAt(Claims claims) {
+        Long issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM, Long.class);
+        if (issuedAtMs != null) {
+            return Instant.ofEpochMilli(issuedAtMs);
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+    }
+
+    /**
+     * Evicts each cached token at the moment its own exp claim passes.
+     */
+    private static final class TokenExpiry implements Expiry<String, AccessTokenClaims> {
+
+        @Override
+        public long expireAfterCreate(String token, AccessTokenClaims claims, long currentTime) {
+            long remainingMs = claims.expiresAt().toEpochMilli() - Instant.now().toEpochMilli();
+            return Math.max(0, remainingMs) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, AccessTokenClaims claims, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, AccessTokenClaims claims, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,72 @@
+package com.focusbuddy.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Optional;
+
+/**
+ * Authenticates STOMP CONNECT frames with the same access tokens as the
+ * REST API, sent as an "Authorization: Bearer ..." native header.
+ *
+ * The handshake itself is unauthenticated (browsers cannot set headers on
+ * it), so every frame after CONNECT relies on the principal set here.
+ * Clients may only subscribe to their own user destinations.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String USER_DESTINATION_PREFIX = "/user/";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final AccessTokenRevocations accessTokenRevocations;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor));
+            case SUBSCRIBE -> {
+                String destination = accessor.getDestination();
+                if (accessor.getUser() == null || destination == null
+                        || !destination.startsWith(USER_DESTINATION_PREFIX)) {
+                    throw new MessageDeliveryException("Subscription to " + destination + " is not allowed");
+                }
+            }
+            case SEND -> throw new MessageDeliveryException("This endpoint is push-only");
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private StompPrincipal authenticate(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (!StringUtils.hasText(header) || !header.startsWith(BEARER_PREFIX)) {
+            throw new MessageDeliveryException("Missing bearer token");
+        }
+
+        Optional<AccessTokenClaims> claims = jwtTokenProvider.verifyAccessToken(header.substring(BEARER_PREFIX.length()));
+        if (claims.isEmpty() || claims.get().userId() == null) {
+            throw new MessageDeliveryException("Invalid bearer token");
+        }
+        if (accessTokenRevocations.isRevoked(claims.get())) {
+            jwtTokenProvider.record(JwtTokenProvider.ValidationOutcome.REVOKED);
+            throw new MessageDeliveryException("Invalid bearer token");
+        }
+        return new StompPrincipal(AuthenticatedUser.fromClaims(claims.get()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.focusbuddy.security;
+
+import java.security.Principal;
+
+/**
+ * Principal of an authenticated STOMP session. Its name is the user ID, so
+ * user destinations (/user/queue/...) are addressed by ID and reach every
+ * connected device of that user.
+ */
+public record StompPrincipal(AuthenticatedUser user) implements Principal {
+
+    @Override
+    public String getName() {
+        return user.userId().toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.focusbuddy.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket keyed by an arbitrary string (IP, email, ...).
+ *
+ * Each bucket is a single AtomicLong holding its "theoretical arrival
+ * time" (the GCRA form of a token bucket): a request is allowed while that
+ * time is at most {@code capacity} refill intervals ahead of now, and every
+ * allowed request pushes it one interval further. Buckets live in a bounded
+ * Caffeine map (internally striped) and are dropped after being idle, so
+ * memory stays bounded no matter how many distinct keys show up.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param capacity       tokens a full bucket holds (burst size)
+     * @param refillPeriod   time to refill the bucket from empty to full
+     * @param maxKeys        upper bound on tracked keys
+     * @param nanoClock      monotonic clock, {@code System::nanoTime} outside tests
+     */
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod, long maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.refillIntervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = refillIntervalNanos * capacity;
+        this.nanoClock = nanoClock;
+        // A bucket idle for a full refill period is full again; forgetting it is lossless
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Math.max(refillPeriod.toNanos(), 1), TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * Take one token for {@code key}.
+     *
+     * @return 0 when allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long arrival = bucket.get();
+            long base = arrival == Long.MIN_VALUE || arrival - now < 0 ? now : arrival;
+            long next = base + refillIntervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long trackedKeys() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,98 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.DistractionLog;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a user's active session, held by
+ * {@link ActiveSessionRegistry}. Detached from JPA so it can be read
+ * from any thread without a persistence context.
+ */
+public record ActiveSession(
+        Long sessionId,
+        Long userId,
+        SessionState status,
+        String taskDescription,
+        SessionType sessionType,
+        int plannedDuration,
+        LocalDateTime startedAt,
+        LocalDateTime pausedAt,
+        int totalPausedSeconds,
+        Long version,
+        List<Distraction> distractions) {
+
+    public record Distraction(Long id, String description, LocalDateTime loggedAt) {
+    }
+
+    /**
+     * Snapshot a managed session. Must run inside the session's transaction
+     * so the distraction logs can be read.
+     */
+    public static ActiveSession from(Session session) {
+        return new ActiveSession(
+                session.getId(),
+                session.getUser().getId(),
+                session.getStatus(),
+                session.getTaskDescription(),
+                session.getSessionType(),
+                session.getPlannedDuration(),
+                session.getStartedAt(),
+                session.getPausedAt(),
+                session.getTotalPausedSeconds(),
+                session.getVersion(),
+                session.getDistractionLogs().stream()
+                        .map(log -> new Distraction(log.getId(), log.getDescription(), log.getLoggedAt()))
+                        .toList());
+    }
+
+    public ActiveSession withDistraction(DistractionLog log) {
+        return withDistractions(List.of(new Distraction(log.getId(), log.getDescription(), log.getLoggedAt())));
+    }
+
+    /**
+     * Append distractions; ids are null for entries still in the write-behind buffer.
+     */
+    public ActiveSession withDistractions(List<Distraction> added) {
+        List<Distraction> updated = new ArrayList<>(distractions);
+        updated.addAll(added);
+        return new ActiveSession(sessionId, userId, status, taskDescription, sessionType, plannedDuration,
+                startedAt, pausedAt, totalPausedSeconds, version, List.copyOf(updated));
+    }
+
+    /**
+     * Rebuild a detached Session carrying this snapshot's state, e.g. to
+     * work out a transition before it is written by a guarded update.
+     */
+    public Session toSession() {
+        User user = new User();
+        user.setId(userId);
+
+        Session session = new Session();
+        session.setId(sessionId);
+        session.setUser(user);
+        session.setStatus(status);
+        session.setTaskDescription(taskDescription);
+        session.setSessionType(sessionType);
+        session.setPlannedDuration(plannedDuration);
+        session.setStartedAt(startedAt);
+        session.setPausedAt(pausedAt);
+        session.setTotalPausedSeconds(totalPausedSeconds);
+        session.setVersion(version);
+        for (Distraction distraction : distractions) {
+            DistractionLog log = new DistractionLog();
+            log.setId(distraction.id());
+            log.setSession(session);
+            log.setDescription(distraction.description());
+            log.setLoggedAt(distraction.loggedAt());
+            session.getDistractionLogs().add(log);
+        }
+        return session;
+    }
+}
@@ -0,0 +1,136 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.DistractionLog;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-through, in-memory view of every user's active session.
+ *
+ * SessionService updates it on start, pause, resume, distraction and end;
+ * changes are applied after the surrounding transaction commits so a
+ * rollback never leaves a phantom entry. It is rebuilt from the database
+ * at startup. Lookups are a map read, which keeps the polled
+ * /api/sessions/current endpoint and the "already active" check off the
+ * database.
+ *
+ * Each node keeps its own view, so an entry can outlive a session ended
+ * through another node. SessionService checks the row before rejecting a
+ * start on an entry and evicts entries a transition finds ended; until
+ * then /current on this node can still report the session. Route a user's
+ * requests to one node where that matters.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveSessionRegistry {
+
+    /**
+     * Order of {@link #rebuild()} among the ApplicationReadyEvent listeners.
+     */
+    static final int REBUILD_ORDER = 0;
+
+    private final SessionRepository sessionRepository;
+
+    private final Map<Long, ActiveSession> byUserId = new ConcurrentHashMap<>();
+
+    /**
+     * Load the active sessions from the database. Requests are already being
+     * served, so the rows are merged in rather than replacing the map: an
+     * entry a commit put there after the query is kept. A session that ended
+     * after the query can come back; transitions and starts check the row
+     * and evict it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(REBUILD_ORDER)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Session> active = sessionRepository.findAllActiveWithDistractionLogs();
+        Map<Long, ActiveSession> loaded = new HashMap<>();
+        active.forEach(session -> loaded.put(session.getUser().getId(), ActiveSession.from(session)));
+        loaded.forEach((userId, snapshot) -> byUserId.merge(userId, snapshot, ActiveSessionRegistry::keepCommitted));
+        log.info("Active session registry rebuilt with {} sessions", loaded.size());
+    }
+
+    public Optional<ActiveSession> find(Long userId) {
+        return Optional.ofNullable(byUserId.get(userId));
+    }
+
+    public boolean hasActiveSession(Long userId) {
+        return byUserId.containsKey(userId);
+    }
+
+    /**
+     * Record a started, paused or resumed session.
+     */
+    public void put(Session session) {
+        ActiveSession snapshot = ActiveSession.from(session);
+        TransactionHooks.afterCommit(() -> byUserId.merge(snapshot.userId(), snapshot, ActiveSessionRegistry::newer));
+    }
+
+    public void addDistraction(Long userId, Long sessionId, DistractionLog distractionLog) {
+        TransactionHooks.afterCommit(() -> byUserId.computeIfPresent(userId,
+                (id, current) -> current.sessionId().equals(sessionId) ? current.withDistraction(distractionLog) : current));
+    }
+
+    public void addDistractions(Long userId, Long sessionId, List<ActiveSession.Distraction> distractions) {
+        TransactionHooks.afterCommit(() -> byUserId.computeIfPresent(userId,
+                (id, current) -> current.sessionId().equals(sessionId) ? current.withDistractions(distractions) : current));
+    }
+
+    /**
+     * Forget an ended session. Leaves the entry alone if it already belongs
+     * to a newer session.
+     */
+    public void remove(Long userId, Long sessionId) {
+        TransactionHooks.afterCommit(() -> byUserId.computeIfPresent(userId,
+                (id, current) -> current.sessionId().equals(sessionId) ? null : current));
+    }
+
+    /**
+     * Drop an entry the database shows is stale, at once rather than after
+     * commit, as the ended row it was checked against is already committed.
+     */
+    public void evict(Long userId, Long sessionId) {
+        byUserId.computeIfPresent(userId, (id, current) -> current.sessionId().equals(sessionId) ? null : current);
+    }
+
+    /**
+     * Commits can complete out of order; never replace a snapshot of the
+     * same session with an older version of it.
+     */
+    private static ActiveSession newer(ActiveSession current, ActiveSession candidate) {
+        boolean sameSession = current.sessionId().equals(candidate.sessionId());
+        if (sameSession && current.version() != null && candidate.version() != null
+                && current.version() > candidate.version()) {
+            return current;
+        }
+        return candidate;
+    }
+
+    /**
+     * An entry for another session was put by a commit since the query, so
+     * the loaded row is the older of the two.
+     */
+    private static ActiveSession keepCommitted(ActiveSession current, ActiveSession loaded) {
+        return current.sessionId().equals(loaded.sessionId()) ? newer(current, loaded) : current;
+    }
+
+    public int size() {
+        return byUserId.size();
+    }
+}
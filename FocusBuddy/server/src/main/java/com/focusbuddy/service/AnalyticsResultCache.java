@@ -0,0 +1,135 @@
+package com.focusbuddy.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Computed stats and summaries per user, so dashboard refreshes do not
+ * recompute them while nothing changed.
+ *
+ * Results are invalidated by the session and task events of the user
+ * once they commit; the TTL only bounds staleness from writes on other
+ * nodes. Invalidation moves the user to a new generation rather than
+ * hunting down their entries: results are keyed by it, so older ones are
+ * never read again and age out under the size bound. A result computed
+ * while an invalidation commits is stored under the generation it was
+ * started with, so it cannot outlive that invalidation either.
+ *
+ * Hit ratio, evictions and size are on the analytics.results cache metrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyticsResultCache {
+
+    private record Key(Long userId, long generation, String view, Object args) {
+    }
+
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.analytics.cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${app.analytics.cache.ttl:PT5M}")
+    private Duration ttl;
+
+    /**
+     * Generations are unique across users, so a user whose generation was
+     * evicted gets a fresh one and cannot see results from before.
+     */
+    private final AtomicLong lastGeneration = new AtomicLong();
+
+    private Cache<Long, Long> generations;
+    private Cache<Key, Object> results;
+    private Counter sessionInvalidations;
+    private Counter taskInvalidations;
+
+    @PostConstruct
+    void init() {
+        generations = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+        results = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "analytics.results");
+        Gauge.builder("analytics.results.hit.ratio", results, cache -> cache.stats().hitRate())
+                .description("Share of analytics lookups answered from the cache")
+                .register(meterRegistry);
+        sessionInvalidations = invalidationCounter("session");
+        taskInvalidations = invalidationCounter("task");
+    }
+
+    /**
+     * The cached result of {@code view} for {@code args}, computing it on a
+     * miss. Concurrent misses may compute it more than once; the database
+     * work is not done under a cache lock.
+     *
+     * @param args everything besides the user the result depends on, with
+     *             equals and hashCode (records, dates, lists)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String view, Object args, Supplier<T> compute) {
+        Key key = new Key(userId, generationOf(userId), view, args);
+        T result = (T) results.getIfPresent(key);
+        if (result == null) {
+            result = compute.get();
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #get}, for results that include a running session's time
+     * up to now: those would be stale a second later, so they are only
+     * cached while the user has no active session.
+     */
+    public <T> T getUnlessRunning(Long userId, String view, Object args, Supplier<T> compute) {
+        if (activeSessionRegistry.hasActiveSession(userId)) {
+            return compute.get();
+        }
+        return get(userId, view, args, compute);
+    }
+
+    public void invalidate(Long userId) {
+        generations.put(userId, lastGeneration.incrementAndGet());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        invalidate(event.userId());
+        sessionInvalidations.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        invalidate(event.userId());
+        taskInvalidations.increment();
+    }
+
+    private long generationOf(Long userId) {
+        return generations.get(userId, id -> lastGeneration.incrementAndGet());
+    }
+
+    private Counter invalidationCounter(String event) {
+        return Counter.builder("analytics.results.invalidations")
+                .description("Users whose cached analytics were dropped after a change")
+                .tag("event", event)
+                .register(meterRegistry);
+    }
+}
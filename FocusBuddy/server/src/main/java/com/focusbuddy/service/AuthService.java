@@ -1,32 +1,40 @@
 package com.focusbuddy.service;
 
 import com.focusbuddy.dto.*;
+import com.focusbuddy.exception.ServiceUnavailableException;
 import com.focusbuddy.exception.UnauthorizedException;
 import com.focusbuddy.model.*;
 import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.security.AccessTokenRevocations;
 import com.focusbuddy.security.JwtTokenProvider;
+import com.focusbuddy.security.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Authentication service with access + refresh token support.
+ *
+ * Signup and login are deliberately not transactional: password hashing
+ * runs on the bounded hashing pool and no database connection is held
+ * while waiting for it. Each write below runs in its own transaction.
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
     private final RefreshTokenService refreshTokenService;
+    private final AccessTokenRevocations accessTokenRevocations;
 
     @Value("${app.jwt.access-expiration-ms}")
     private long accessExpirationMs;
 
-    @Transactional
     public AuthResponse signup(SignupRequest request, String deviceInfo) {
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new IllegalArgumentException("Email already taken");
@@ -39,7 +47,7 @@ public class AuthService {
         User newUser = new User();
         newUser.setEmail(request.getEmail());
         newUser.setHandle(request.getHandle());
-        newUser.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        newUser.setPasswordHash(passwordHashingService.encode(request.getPassword()));
         newUser.setRole(Role.USER);
 
         Streak streak = new Streak();
@@ -51,32 +59,30 @@ public class AuthService {
         return generateAuthResponse(savedUser, deviceInfo);
     }
 
-    @Transactional
     public AuthResponse login(LoginRequest request, String deviceInfo) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UnauthorizedException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
             throw new UnauthorizedException("Invalid credentials");
         }
 
+        if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+            rehashPassword(user, request.getPassword());
+        }
+
         return generateAuthResponse(user, deviceInfo);
     }
 
-    @Transactional
+    @Transactional(noRollbackFor = UnauthorizedException.class)
     public TokenResponse refresh(String refreshToken, String deviceInfo) {
-        RefreshToken verified = refreshTokenService.verifyRefreshToken(refreshToken)
-                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
-
-        User user = verified.getUser();
-
-        RefreshToken newToken = refreshTokenService.rotateRefreshToken(
-                refreshToken, user, deviceInfo);
+        RefreshTokenService.IssuedToken newToken = refreshTokenService.rotateRefreshToken(refreshToken, deviceInfo);
+        User user = newToken.user();
 
         String accessToken = jwtTokenProvider.generateAccessToken(
                 user.getId(), user.getEmail(), user.getRole());
 
-        return new TokenResponse(accessToken, newToken.getTokenHash(), accessExpirationMs / 1000);
+        return new TokenResponse(accessToken, newToken.rawToken(), accessExpirationMs / 1000);
     }
 
     @Transactional
@@ -84,11 +90,14 @@ public class AuthService {
         refreshTokenService.revokeToken(refreshToken);
     }
 
+    /**
+     * Logout from all devices: revoke every refresh token and invalidate
+     * all access tokens issued so far.
+     */
     @Transactional
     public void logoutAll(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        refreshTokenService.revokeAllUserTokens(user);
+        refreshTokenService.revokeAllUserTokens(userRepository.getReferenceById(userId));
+        accessTokenRevocations.revokeAll(userId);
     }
 
     public User getUserByEmail(String email) {
@@ -101,15 +110,31 @@ public class AuthService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
     }
 
+    /**
+     * Upgrade a hash created with an older cost factor. Skipped when the
+     * hashing pool is saturated; the next login will try again.
+     */
+    private void rehashPassword(User user, String rawPassword) {
+        try {
+            String newHash = passwordHashingService.encode(rawPassword);
+            // Only the hash is written, and only if no one changed it meanwhile
+            if (userRepository.updatePasswordHash(user.getId(), user.getPasswordHash(), newHash) == 1) {
+                user.setPasswordHash(newHash);
+            }
+        } catch (ServiceUnavailableException e) {
+            log.debug("Skipping password rehash for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
     private AuthResponse generateAuthResponse(User user, String deviceInfo) {
         String accessToken = jwtTokenProvider.generateAccessToken(
                 user.getId(), user.getEmail(), user.getRole());
 
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user, deviceInfo);
+        RefreshTokenService.IssuedToken refreshToken = refreshTokenService.createRefreshToken(user, deviceInfo);
 
         return new AuthResponse(
                 accessToken,
-                refreshToken.getTokenHash(),
+                refreshToken.rawToken(),
                 accessExpirationMs / 1000,
                 UserResponse.fromUser(user));
     }
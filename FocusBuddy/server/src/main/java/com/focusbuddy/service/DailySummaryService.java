@@ -0,0 +1,48 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.dto.DailySummary;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.repository.SessionTypeTotal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-day totals by session type, behind both /api/sessions/summary and
+ * /api/analytics/daily-summary.
+ *
+ * A day is the sessions started on it. All types come from one grouped
+ * aggregate over the (user_id, started_at) index; no session is loaded.
+ * Active sessions count the time elapsed so far, computed by the database
+ * the same way ending them would.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailySummaryService {
+
+    private final SessionRepository sessionRepository;
+
+    @Transactional(readOnly = true)
+    public DailySummary summarize(Long userId, LocalDate date) {
+        Map<SessionType, Long> seconds = new EnumMap<>(SessionType.class);
+        Map<SessionType, Long> sessions = new EnumMap<>(SessionType.class);
+        for (SessionType type : SessionType.values()) {
+            seconds.put(type, 0L);
+            sessions.put(type, 0L);
+        }
+
+        for (SessionTypeTotal total : sessionRepository.sumBySessionType(userId, date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay(), LocalDateTime.now())) {
+            seconds.put(total.sessionType(), total.seconds());
+            sessions.put(total.sessionType(), total.sessions());
+        }
+        return new DailySummary(date, Collections.unmodifiableMap(seconds), Collections.unmodifiableMap(sessions));
+    }
+}
@@ -0,0 +1,265 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.DistractionLog;
+import com.focusbuddy.repository.DistractionLogRepository;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind buffer for distraction logs.
+ *
+ * When enabled, accepted distractions are queued and written by a
+ * background thread every flush-interval, or as soon as max-items are
+ * pending, grouping rows from all users into one JDBC batch. A batch that
+ * fails is retried row by row, so one bad row does not take the others with
+ * it. Rows are held per session, so ending a session writes only its own
+ * rows, in the ending transaction. The buffer is drained on graceful
+ * shutdown; a hard crash loses at most one interval of taps.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DistractionLogBuffer {
+
+    /**
+     * A distraction accepted for a session but not yet written.
+     */
+    public record PendingDistraction(Long sessionId, String description, LocalDateTime loggedAt) {
+    }
+
+    private final DistractionLogRepository distractionLogRepository;
+    private final SessionRepository sessionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.sessions.distraction-buffer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.sessions.distraction-buffer.flush-interval:PT0.5S}")
+    private Duration flushInterval;
+
+    @Value("${app.sessions.distraction-buffer.max-items:500}")
+    private int maxItems;
+
+    private final ConcurrentMap<Long, List<PendingDistraction>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private TransactionTemplate flushTransaction;
+    private ScheduledExecutorService scheduler;
+    private Counter flushedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        // Background and shutdown flushes run outside any request transaction
+        flushTransaction = new TransactionTemplate(transactionManager);
+
+        flushedCounter = meterRegistry.counter("sessions.distractions.buffer.flushed");
+        droppedCounter = meterRegistry.counter("sessions.distractions.buffer.dropped");
+        meterRegistry.gauge("sessions.distractions.buffer.pending", pendingCount);
+
+        if (enabled) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "distraction-buffer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMs = Math.max(1, flushInterval.toMillis());
+            scheduler.scheduleWithFixedDelay(this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue distractions once the caller's transaction commits, so a
+     * rollback never leaves rows for the background flush to write.
+     */
+    public void add(List<PendingDistraction> distractions) {
+        if (!enabled) {
+            throw new IllegalStateException("Distraction buffer is disabled");
+        }
+        TransactionHooks.afterCommit(() -> {
+            requeue(distractions);
+            if (pendingCount.get() >= maxItems) {
+                scheduler.execute(this::flushQuietly);
+            }
+        });
+    }
+
+    /**
+     * Write everything pending, in batches of at most max-items.
+     *
+     * @return number of rows written
+     */
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        flushLock.lock();
+        try {
+            int written = 0;
+            List<PendingDistraction> batch = new ArrayList<>(maxItems);
+            for (Long sessionId : pending.keySet()) {
+                batch.addAll(take(sessionId));
+                if (batch.size() >= maxItems) {
+                    written += write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                written += write(batch);
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Write the rows pending for one session in the caller's transaction, so
+     * they commit with it and take no second connection. If that transaction
+     * rolls back the rows are queued again. A background flush in progress
+     * is waited for, so rows it already took are committed, and visible to
+     * the caller, by the time this returns.
+     *
+     * @return number of rows written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int flushSession(Long sessionId) {
+        List<PendingDistraction> distractions;
+        flushLock.lock();
+        try {
+            distractions = take(sessionId);
+        } finally {
+            flushLock.unlock();
+        }
+        if (distractions.isEmpty()) {
+            return 0;
+        }
+        distractionLogRepository.saveAll(toLogs(distractions));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    flushedCounter.increment(distractions.size());
+                } else {
+                    requeue(distractions);
+                }
+            }
+        });
+        return distractions.size();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        int written = flush();
+        if (written > 0) {
+            log.info("Drained {} buffered distraction logs on shutdown", written);
+        }
+    }
+
+    /**
+     * Write a batch in one transaction. If it fails, e.g. because one of its
+     * sessions was deleted meanwhile, retry the rows one by one so only the
+     * rows that fail on their own are dropped.
+     */
+    private int write(List<PendingDistraction> batch) {
+        try {
+            insert(batch);
+            flushedCounter.increment(batch.size());
+            return batch.size();
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} buffered distraction logs failed, retrying row by row: {}",
+                    batch.size(), e.getMessage());
+        }
+
+        int written = 0;
+        for (PendingDistraction distraction : batch) {
+            try {
+                insert(List.of(distraction));
+                flushedCounter.increment();
+                written++;
+            } catch (RuntimeException e) {
+                droppedCounter.increment();
+                log.error("Dropped buffered distraction log for session {}: {}",
+                        distraction.sessionId(), e.getMessage(), e);
+            }
+        }
+        return written;
+    }
+
+    private void insert(List<PendingDistraction> distractions) {
+        flushTransaction.executeWithoutResult(status -> distractionLogRepository.saveAll(toLogs(distractions)));
+    }
+
+    private List<DistractionLog> toLogs(List<PendingDistraction> distractions) {
+        List<DistractionLog> logs = new ArrayList<>(distractions.size());
+        for (PendingDistraction distraction : distractions) {
+            DistractionLog entry = new DistractionLog();
+            entry.setSession(sessionRepository.getReferenceById(distraction.sessionId()));
+            entry.setDescription(distraction.description());
+            entry.setLoggedAt(distraction.loggedAt());
+            logs.add(entry);
+        }
+        return logs;
+    }
+
+    private void requeue(List<PendingDistraction> distractions) {
+        Map<Long, List<PendingDistraction>> bySession = distractions.stream()
+                .collect(Collectors.groupingBy(PendingDistraction::sessionId));
+        // The list is only mutated inside merge, which holds the key's bin lock
+        bySession.forEach((sessionId, rows) -> pending.merge(sessionId, new ArrayList<>(rows), (queued, added) -> {
+            queued.addAll(added);
+            return queued;
+        }));
+        pendingCount.addAndGet(distractions.size());
+    }
+
+    private List<PendingDistraction> take(Long sessionId) {
+        List<PendingDistraction> distractions = pending.remove(sessionId);
+        if (distractions == null) {
+            return List.of();
+        }
+        pendingCount.addAndGet(-distractions.size());
+        return distractions;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Distraction log flush failed", e);
+        }
+    }
+}
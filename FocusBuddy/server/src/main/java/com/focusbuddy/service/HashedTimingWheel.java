@@ -0,0 +1,152 @@
+package com.focusbuddy.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel holding at most one deadline per key.
+ *
+ * Deadlines are hashed into {@code wheelSize} buckets of one tick each; a
+ * deadline more than one rotation out stays in its bucket until a visit
+ * finds it due. Scheduling and cancelling are O(1) and safe from any
+ * thread: new entries go through a lock-free queue and cancelled ones are
+ * only flagged. All bucket work happens in {@link #advance(long)}, which
+ * must be called from a single thread and only visits the buckets of the
+ * elapsed ticks, so a tick costs about held / wheelSize entry checks
+ * instead of a scan of everything held.
+ */
+public class HashedTimingWheel<K> {
+
+    private static final class Entry<K> {
+        final K key;
+        final long deadlineMillis;
+        volatile boolean cancelled;
+
+        Entry(K key, long deadlineMillis) {
+            this.key = key;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final long startMillis;
+    private final List<List<Entry<K>>> buckets;
+    private final Queue<Entry<K>> incoming = new ConcurrentLinkedQueue<>();
+    private final Map<K, Entry<K>> entries = new ConcurrentHashMap<>();
+
+    /** Next tick to process; only read and written by the advancing thread. */
+    private long nextTick;
+
+    /**
+     * @param tick        bucket width; deadlines fire up to one tick late
+     * @param wheelSize   number of buckets, rounded up to a power of two
+     * @param startMillis wall-clock time of tick zero
+     */
+    public HashedTimingWheel(Duration tick, int wheelSize, long startMillis) {
+        if (tick.toMillis() < 1) {
+            throw new IllegalArgumentException("tick must be at least 1ms");
+        }
+        if (wheelSize < 1 || wheelSize > 1 << 20) {
+            throw new IllegalArgumentException("wheelSize must be between 1 and 2^20");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        size = Math.max(size, 1);
+        this.tickMillis = tick.toMillis();
+        this.mask = size - 1;
+        this.startMillis = startMillis;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Set the deadline for {@code key}, replacing any earlier one.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        Entry<K> entry = new Entry<>(key, deadlineMillis);
+        Entry<K> previous = entries.put(key, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        incoming.add(entry);
+    }
+
+    public void cancel(K key) {
+        Entry<K> previous = entries.remove(key);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+    }
+
+    /**
+     * Number of keys with a pending deadline.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Process every tick that has fully elapsed at {@code nowMillis} and
+     * return the keys whose deadline passed, in no particular order. Those
+     * keys are no longer held.
+     */
+    public List<K> advance(long nowMillis) {
+        long lastTick = Math.floorDiv(nowMillis - startMillis + 1, tickMillis) - 1;
+        List<K> expired = new ArrayList<>();
+        if (lastTick < nextTick) {
+            return expired;
+        }
+        transferIncoming();
+
+        // After a long pause every bucket is visited once, at its latest tick
+        long firstTick = Math.max(nextTick, lastTick - mask);
+        for (long tick = firstTick; tick <= lastTick; tick++) {
+            expireBucket(buckets.get((int) (tick & mask)), tickEnd(tick), expired);
+        }
+        nextTick = lastTick + 1;
+        return expired;
+    }
+
+    private void transferIncoming() {
+        Entry<K> entry;
+        while ((entry = incoming.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            // Overdue entries go into the next bucket processed
+            long tick = Math.max(Math.floorDiv(entry.deadlineMillis - startMillis, tickMillis), nextTick);
+            buckets.get((int) (tick & mask)).add(entry);
+        }
+    }
+
+    private void expireBucket(List<Entry<K>> bucket, long upToMillis, List<K> expired) {
+        // Compact in place: survivors are shifted down over removed entries
+        int kept = 0;
+        for (int i = 0, size = bucket.size(); i < size; i++) {
+            Entry<K> entry = bucket.get(i);
+            if (entry.cancelled) {
+                continue;
+            }
+            if (entry.deadlineMillis <= upToMillis) {
+                // Only report it if it was not replaced or cancelled meanwhile
+                if (entries.remove(entry.key, entry)) {
+                    expired.add(entry.key);
+                }
+                continue;
+            }
+            bucket.set(kept++, entry);
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    private long tickEnd(long tick) {
+        return startMillis + (tick + 1) * tickMillis - 1;
+    }
+}
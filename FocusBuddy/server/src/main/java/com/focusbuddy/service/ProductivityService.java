@@ -2,20 +2,20 @@ package com.focusbuddy.service;
 
 import com.focusbuddy.dto.*;
 import com.focusbuddy.model.*;
+import com.focusbuddy.repository.SessionCursor;
+import com.focusbuddy.repository.SessionFilter;
 import com.focusbuddy.repository.SessionRepository;
 import com.focusbuddy.repository.TaskRepository;
+import com.focusbuddy.repository.TimelineRow;
 import com.focusbuddy.repository.StreakRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -28,6 +28,8 @@ public class ProductivityService {
         private final SessionRepository sessionRepository;
         private final TaskRepository taskRepository;
         private final StreakRepository streakRepository;
+        private final UserDailyStatsService userDailyStatsService;
+        private final AnalyticsResultCache analyticsResultCache;
 
         /**
          * Get productivity stats for given range.
@@ -41,21 +43,32 @@ public class ProductivityService {
                         case MONTHLY -> endDate.minusDays(29);
                 };
 
+                return getStats(userId, startDate, endDate);
+        }
+
+        /**
+         * Get productivity stats for any range of days, inclusive. Session
+         * totals come from the running totals of two rollup rows, so the
+         * cost does not grow with the length of the range.
+         */
+        @Transactional(readOnly = true)
+        public ProductivityStats getStats(Long userId, LocalDate startDate, LocalDate endDate) {
+                if (startDate.isAfter(endDate)) {
+                        throw new IllegalArgumentException("'from' must not be after 'to'");
+                }
+                return analyticsResultCache.get(userId, "stats", List.of(startDate, endDate),
+                                () -> computeStats(userId, startDate, endDate));
+        }
+
+        private ProductivityStats computeStats(Long userId, LocalDate startDate, LocalDate endDate) {
                 LocalDateTime startDateTime = startDate.atStartOfDay();
                 LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
 
-                List<Session> sessions = sessionRepository.findByUserIdAndStartedAtBetween(
-                                userId, startDateTime, endDateTime);
-
-                long totalFocusSeconds = sessions.stream()
-                                .filter(s -> s.getStatus() == SessionState.COMPLETED)
-                                .mapToLong(Session::getActualFocusSeconds)
-                                .sum();
+                UserDailyStatsService.RangeTotals totals = userDailyStatsService.totalsBetween(
+                                userId, startDate, endDate);
 
-                int totalSessions = sessions.size();
-                int completedSessions = (int) sessions.stream()
-                                .filter(s -> s.getStatus() == SessionState.COMPLETED)
-                                .count();
+                int totalSessions = (int) totals.sessionsStarted();
+                int completedSessions = (int) totals.sessionsCompleted();
 
                 double completionRate = totalSessions > 0
                                 ? (double) completedSessions / totalSessions * 100
@@ -69,16 +82,11 @@ public class ProductivityService {
                                 .orElse(0);
 
                 // Focus consistency: % of days in range with at least one completed session
-                long daysWithFocus = sessions.stream()
-                                .filter(s -> s.getStatus() == SessionState.COMPLETED)
-                                .map(s -> s.getStartedAt().toLocalDate())
-                                .distinct()
-                                .count();
-                int totalDays = (int) java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1;
-                double focusConsistency = totalDays > 0 ? (double) daysWithFocus / totalDays * 100 : 0;
+                long totalDays = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1;
+                double focusConsistency = (double) totals.activeDays() / totalDays * 100;
 
                 return new ProductivityStats(
-                                totalFocusSeconds / 60,
+                                totals.completedSeconds() / 60,
                                 totalSessions,
                                 completedSessions,
                                 Math.round(completionRate * 10) / 10.0,
@@ -90,24 +98,30 @@ public class ProductivityService {
         }
 
         /**
-         * Get timeline of sessions for charts.
+         * Get one keyset page of the session timeline for charts, newest first.
          */
         @Transactional(readOnly = true)
-        public Page<TimelineEntry> getTimeline(Long userId, LocalDate from, LocalDate to, int page, int size) {
-                LocalDateTime startDateTime = from.atStartOfDay();
-                LocalDateTime endDateTime = to.atTime(LocalTime.MAX);
-
-                Pageable pageable = PageRequest.of(page, size, Sort.by("startedAt").descending());
-
-                return sessionRepository.findByUserIdAndStartedAtBetweenPaged(
-                                userId, startDateTime, endDateTime, pageable).map(
-                                                session -> new TimelineEntry(
-                                                                session.getId(),
-                                                                session.getTaskDescription(),
-                                                                session.getStatus().name(),
-                                                                session.getStartedAt(),
-                                                                session.getEndedAt(),
-                                                                session.getActualFocusSeconds() / 60,
-                                                                session.getDistractionLogs().size()));
+        public CursorPage<TimelineEntry> getTimeline(Long userId, SessionFilter filter, String cursor, int size) {
+                // Entries of a running session count its focus time up to now
+                return analyticsResultCache.getUnlessRunning(userId, "timeline",
+                                Arrays.asList(filter, cursor, size),
+                                () -> computeTimeline(userId, filter, cursor, size));
+        }
+
+        private CursorPage<TimelineEntry> computeTimeline(Long userId, SessionFilter filter, String cursor,
+                        int size) {
+                List<TimelineRow> rows = sessionRepository.findTimelinePage(
+                                userId, filter, SessionCursor.decode(cursor), size + 1);
+
+                return CursorPage.of(rows, size, row -> SessionCursor.of(row).encode()).map(
+                                row -> new TimelineEntry(
+                                                row.id(),
+                                                row.taskDescription(),
+                                                row.status().name(),
+                                                row.startedAt(),
+                                                row.endedAt(),
+                                                Session.actualFocusSeconds(row.startedAt(), row.endedAt(),
+                                                                row.totalPausedSeconds()) / 60,
+                                                (int) row.distractionCount()));
         }
 }
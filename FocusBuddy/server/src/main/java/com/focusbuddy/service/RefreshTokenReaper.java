@@ -0,0 +1,93 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Purges expired and long-revoked refresh tokens in the background.
+ *
+ * Every refresh inserts a row, so without this the table grows forever.
+ * Rows are deleted in small chunks, each in its own short transaction,
+ * so the job never holds locks on a large range of the table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenReaper {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.reaper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.jwt.reaper.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${app.jwt.reaper.revoked-retention:7d}")
+    private Duration revokedRetention;
+
+    private Counter purgedCounter;
+    private Timer runTimer;
+
+    @PostConstruct
+    void init() {
+        purgedCounter = Counter.builder("auth.refresh.reaper.purged")
+                .description("Refresh token rows deleted by the reaper")
+                .register(meterRegistry);
+        runTimer = Timer.builder("auth.refresh.reaper.duration")
+                .description("Time spent per reaper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.reaper.interval:PT1H}",
+            initialDelayString = "${app.jwt.reaper.initial-delay:PT5M}")
+    public void purgeScheduled() {
+        purge(LocalDateTime.now());
+    }
+
+    /**
+     * Delete purgeable tokens as of {@code now}.
+     *
+     * @return number of rows deleted
+     */
+    public int purge(LocalDateTime now) {
+        LocalDateTime revokedBefore = now.minus(revokedRetention);
+        PageRequest chunk = PageRequest.of(0, chunkSize);
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        int purged = 0;
+        for (int i = 0; i < maxChunksPerRun; i++) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = refreshTokenRepository.findPurgeableIds(now, revokedBefore, chunk);
+                return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIdIn(ids);
+            });
+            purged += deleted;
+            purgedCounter.increment(deleted);
+            if (deleted < chunkSize) {
+                break;
+            }
+        }
+
+        long elapsedNanos = sample.stop(runTimer);
+        if (purged > 0) {
+            log.info("Purged {} refresh tokens in {} ms", purged, Duration.ofNanos(elapsedNanos).toMillis());
+        }
+        return purged;
+    }
+}
@@ -1,8 +1,10 @@
 package com.focusbuddy.service;
 
+import com.focusbuddy.exception.UnauthorizedException;
 import com.focusbuddy.model.RefreshToken;
 import com.focusbuddy.model.User;
 import com.focusbuddy.repository.RefreshTokenRepository;
+import com.focusbuddy.repository.UserRepository;
 import com.focusbuddy.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,16 +25,23 @@ import java.util.Optional;
 public class RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
 
     @Value("${app.jwt.refresh-expiration-ms}")
     private long refreshExpirationMs;
 
+    /**
+     * Newly issued token: the raw value goes to the client, only its hash is stored.
+     */
+    public record IssuedToken(String rawToken, User user) {
+    }
+
     /**
      * Create a new refresh token for user.
      */
     @Transactional
-    public RefreshToken createRefreshToken(User user, String deviceInfo) {
+    public IssuedToken createRefreshToken(User user, String deviceInfo) {
         String rawToken = jwtTokenProvider.generateRefreshToken();
         String tokenHash = hashToken(rawToken);
 
@@ -44,44 +53,42 @@ public class RefreshTokenService {
 
         refreshTokenRepository.save(refreshToken);
 
-        // Store raw token temporarily for response (not persisted)
-        refreshToken.setTokenHash(rawToken);
-        return refreshToken;
+        return new IssuedToken(rawToken, user);
     }
 
     /**
-     * Validate and rotate refresh token.
-     * Returns new token pair if valid, throws exception if token was reused.
+     * Rotate a refresh token atomically.
+     *
+     * A single conditional UPDATE revokes the presented token only if it is
+     * still active and returns its owner; whether a row came back decides
+     * the outcome, so two concurrent refreshes with the same token cannot
+     * both succeed. The winner inserts the replacement token. A loser that
+     * presented an already revoked token triggers reuse detection and all of
+     * the user's tokens are revoked (committed despite the exception).
      */
-    @Transactional
-    public RefreshToken rotateRefreshToken(String rawToken, User user, String deviceInfo) {
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public IssuedToken rotateRefreshToken(String rawToken, String deviceInfo) {
         String tokenHash = hashToken(rawToken);
-        Optional<RefreshToken> existing = refreshTokenRepository.findByTokenHash(tokenHash);
-
-        if (existing.isEmpty()) {
-            // Token not found - possible reuse attack, revoke all user tokens
-            refreshTokenRepository.revokeAllByUser(user, LocalDateTime.now());
-            throw new SecurityException("Refresh token reuse detected - all sessions invalidated");
+        LocalDateTime now = LocalDateTime.now();
+
+        Optional<Long> ownerId = refreshTokenRepository.revokeIfActive(tokenHash, now);
+        if (ownerId.isPresent()) {
+            // Served from the users cache region, so no query on a hit
+            User user = userRepository.findById(ownerId.get())
+                    .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
+            return createRefreshToken(user, deviceInfo);
         }
 
-        RefreshToken token = existing.get();
+        // Slow path: explain why the token was rejected
+        RefreshToken token = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
 
         if (token.isRevoked()) {
-            // Revoked token used - reuse attack, revoke all
-            refreshTokenRepository.revokeAllByUser(user, LocalDateTime.now());
-            throw new SecurityException("Revoked refresh token used - all sessions invalidated");
-        }
-
-        if (token.isExpired()) {
-            throw new SecurityException("Refresh token expired");
+            refreshTokenRepository.revokeAllByUser(token.getUser(), now);
+            throw new UnauthorizedException("Refresh token reuse detected - all sessions invalidated");
         }
 
-        // Revoke current token
-        token.setRevokedAt(LocalDateTime.now());
-        refreshTokenRepository.save(token);
-
-        // Create new token (rotation)
-        return createRefreshToken(user, deviceInfo);
+        throw new UnauthorizedException("Refresh token expired");
     }
 
     /**
@@ -117,14 +124,4 @@ public class RefreshTokenService {
             throw new RuntimeException("SHA-256 not available", e);
         }
     }
-
-    /**
-     * Verify token and return associated user.
-     */
-    @Transactional(readOnly = true)
-    public Optional<RefreshToken> verifyRefreshToken(String rawToken) {
-        String tokenHash = hashToken(rawToken);
-        return refreshTokenRepository.findByTokenHash(tokenHash)
-                .filter(RefreshToken::isValid);
-    }
 }
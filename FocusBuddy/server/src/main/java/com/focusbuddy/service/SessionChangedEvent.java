@@ -0,0 +1,31 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+
+/**
+ * Published by SessionService whenever a user's session changes; listeners
+ * run after the change commits.
+ *
+ * @param session the session after the change, or null for distraction
+ *                events, where the active session registry holds the state
+ */
+public record SessionChangedEvent(Long userId, Long sessionId, Type type, Session session) {
+
+    public enum Type {
+        STARTED,
+        PAUSED,
+        RESUMED,
+        ENDED,
+        DISTRACTION
+    }
+
+    public static Type typeOf(SessionState state) {
+        return switch (state) {
+            case STARTED -> Type.STARTED;
+            case PAUSED -> Type.PAUSED;
+            case RESUMED -> Type.RESUMED;
+            default -> Type.ENDED;
+        };
+    }
+}
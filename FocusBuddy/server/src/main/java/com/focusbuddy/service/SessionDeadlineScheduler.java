@@ -0,0 +1,173 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.repository.ActiveSessionTiming;
+import com.focusbuddy.repository.SessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ends sessions whose client went away.
+ *
+ * Every active session has a deadline in a hashed timing wheel keyed by
+ * user: the planned end plus a grace period while running, or the start of
+ * the pause plus max-pause while paused. Session events move the deadline;
+ * a tick only looks at the deadlines that fell due, so there is no periodic
+ * scan of the sessions table. An expired deadline is re-checked against the
+ * active session registry, or the row if the registry has no entry, before
+ * the session is ended, as of its planned end (COMPLETED) or the start of
+ * its pause (ABORTED).
+ *
+ * Deadlines are rebuilt from the database on startup. Sessions started on
+ * other nodes after that are only picked up by the node that started them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.sessions.auto-end.enabled", havingValue = "true", matchIfMissing = true)
+public class SessionDeadlineScheduler {
+
+    private static final Set<SessionState> RUNNING = EnumSet.of(SessionState.STARTED, SessionState.RESUMED);
+    private static final Set<SessionState> PAUSED = EnumSet.of(SessionState.PAUSED);
+
+    /**
+     * When a session becomes overdue and how it is then ended.
+     */
+    record Expiry(LocalDateTime deadline, LocalDateTime endedAt, Set<SessionState> from, SessionState target) {
+    }
+
+    private final SessionRepository sessionRepository;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final SessionService sessionService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.sessions.auto-end.grace:PT5M}")
+    private Duration grace;
+
+    @Value("${app.sessions.auto-end.max-pause:PT1H}")
+    private Duration maxPause;
+
+    @Value("${app.sessions.auto-end.tick:PT1S}")
+    private Duration tick;
+
+    @Value("${app.sessions.auto-end.wheel-size:4096}")
+    private int wheelSize;
+
+    private HashedTimingWheel<Long> wheel;
+
+    @PostConstruct
+    void init() {
+        wheel = new HashedTimingWheel<>(tick, wheelSize, System.currentTimeMillis());
+        meterRegistry.gauge("sessions.deadlines.pending", this, scheduler -> scheduler.wheel.size());
+    }
+
+    /**
+     * Runs after the registry is rebuilt, which {@link #expireDue} reads first.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(ActiveSessionRegistry.REBUILD_ORDER + 1)
+    public void rehydrate() {
+        List<ActiveSessionTiming> active = sessionRepository.findAllActiveTimings();
+        active.forEach(this::schedule);
+        log.info("Scheduled deadlines for {} active sessions", active.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        switch (event.type()) {
+            case STARTED, PAUSED, RESUMED -> schedule(timingOf(event.session()));
+            case ENDED -> wheel.cancel(event.userId());
+            default -> {
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.sessions.auto-end.tick:PT1S}")
+    public void tick() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    /**
+     * End every session whose deadline passed by {@code nowMillis}.
+     *
+     * @return number of sessions ended
+     */
+    public int expireDue(long nowMillis) {
+        int ended = 0;
+        for (Long userId : wheel.advance(nowMillis)) {
+            // The deadline is off the wheel now, so a registry miss (e.g. not
+            // loaded yet) is settled from the row rather than dropped
+            ActiveSessionTiming active = activeSessionRegistry.find(userId)
+                    .map(SessionDeadlineScheduler::timingOf)
+                    .or(() -> sessionRepository.findActiveTimingByUserId(userId))
+                    .orElse(null);
+            if (active == null) {
+                continue;
+            }
+            Expiry expiry = expiryOf(active);
+            long deadlineMillis = toMillis(expiry.deadline());
+            if (deadlineMillis > nowMillis) {
+                // Moved on since this deadline was set
+                wheel.schedule(userId, deadlineMillis);
+                continue;
+            }
+            try {
+                if (sessionService.expireSession(userId, active.sessionId(), expiry.from(), expiry.target(),
+                        expiry.endedAt())) {
+                    meterRegistry.counter("sessions.auto.ended", "status", expiry.target().name()).increment();
+                    ended++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not auto-end session {} of user {}", active.sessionId(), userId, e);
+            }
+        }
+        return ended;
+    }
+
+    Expiry expiryOf(ActiveSessionTiming session) {
+        if (session.status() == SessionState.PAUSED && session.pausedAt() != null) {
+            return new Expiry(session.pausedAt().plus(maxPause), session.pausedAt(), PAUSED, SessionState.ABORTED);
+        }
+        LocalDateTime plannedEnd = session.startedAt()
+                .plusMinutes(session.plannedDuration())
+                .plusSeconds(session.totalPausedSeconds());
+        return new Expiry(plannedEnd.plus(grace), plannedEnd, RUNNING, SessionState.COMPLETED);
+    }
+
+    private void schedule(ActiveSessionTiming session) {
+        wheel.schedule(session.userId(), toMillis(expiryOf(session).deadline()));
+    }
+
+    private static ActiveSessionTiming timingOf(Session session) {
+        return new ActiveSessionTiming(session.getId(), session.getUser().getId(), session.getStatus(),
+                session.getStartedAt(), session.getPausedAt(), session.getPlannedDuration(),
+                session.getTotalPausedSeconds());
+    }
+
+    private static ActiveSessionTiming timingOf(ActiveSession session) {
+        return new ActiveSessionTiming(session.sessionId(), session.userId(), session.status(),
+                session.startedAt(), session.pausedAt(), session.plannedDuration(), session.totalPausedSeconds());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
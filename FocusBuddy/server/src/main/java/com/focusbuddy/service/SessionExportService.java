@@ -0,0 +1,186 @@
+package com.focusbuddy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.focusbuddy.dto.response.DistractionLogResponse;
+import com.focusbuddy.dto.response.SessionResponse;
+import com.focusbuddy.repository.SessionExportRow;
+import com.focusbuddy.repository.SessionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's full session and distraction history.
+ *
+ * Rows come from a forward-only database cursor and are written as they
+ * arrive, so memory use depends on the size of one session, not on how
+ * many sessions the user has.
+ */
+@Service
+@RequiredArgsConstructor
+public class SessionExportService {
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private static final String CSV_HEADER = "session_id,status,session_type,task_description,"
+            + "planned_duration,actual_duration,started_at,ended_at,reflection,"
+            + "distraction_id,distraction_description,distraction_logged_at";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final SessionRepository sessionRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write the export to {@code out}. The caller owns and closes the stream.
+     *
+     * @return number of sessions written
+     */
+    @Transactional(readOnly = true)
+    public long export(Long userId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_BYTES);
+        long sessions;
+        try (Stream<SessionExportRow> rows = sessionRepository.streamExportRows(userId)) {
+            sessions = switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), writer);
+                case CSV -> writeCsv(rows.iterator(), writer);
+            };
+        }
+        writer.flush();
+        return sessions;
+    }
+
+    /**
+     * One JSON object per session with its distractions nested, in the same
+     * shape as the sessions API.
+     */
+    private long writeNdjson(Iterator<SessionExportRow> rows, Writer writer) throws IOException {
+        long sessions = 0;
+        SessionExportRow head = null;
+        List<DistractionLogResponse> distractions = new ArrayList<>();
+
+        while (rows.hasNext()) {
+            SessionExportRow row = rows.next();
+            if (head != null && !head.sessionId().equals(row.sessionId())) {
+                writeJsonLine(head, distractions, writer);
+                sessions++;
+                distractions = new ArrayList<>();
+            }
+            if (head == null || !head.sessionId().equals(row.sessionId())) {
+                head = row;
+            }
+            if (row.distractionId() != null) {
+                distractions.add(new DistractionLogResponse(
+                        row.distractionId(), row.distractionDescription(), row.distractionLoggedAt()));
+            }
+        }
+        if (head != null) {
+            writeJsonLine(head, distractions, writer);
+            sessions++;
+        }
+        return sessions;
+    }
+
+    private void writeJsonLine(SessionExportRow session, List<DistractionLogResponse> distractions, Writer writer)
+            throws IOException {
+        SessionResponse response = new SessionResponse(
+                session.sessionId(),
+                session.status().name(),
+                session.taskDescription(),
+                session.plannedDuration(),
+                session.actualDuration(),
+                session.startedAt(),
+                session.endedAt(),
+                session.reflection(),
+                session.sessionType().name(),
+                distractions);
+        writer.write(objectMapper.writeValueAsString(response));
+        writer.write('\n');
+    }
+
+    /**
+     * Flat RFC 4180 CSV, one line per distraction; sessions without
+     * distractions get one line with empty distraction columns.
+     */
+    private long writeCsv(Iterator<SessionExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+
+        long sessions = 0;
+        Long previousSessionId = null;
+        while (rows.hasNext()) {
+            SessionExportRow row = rows.next();
+            if (!row.sessionId().equals(previousSessionId)) {
+                sessions++;
+                previousSessionId = row.sessionId();
+            }
+            writeCsvLine(writer,
+                    row.sessionId(),
+                    row.status(),
+                    row.sessionType(),
+                    row.taskDescription(),
+                    row.plannedDuration(),
+                    row.actualDuration(),
+                    row.startedAt(),
+                    row.endedAt(),
+                    row.reflection(),
+                    row.distractionId(),
+                    row.distractionDescription(),
+                    row.distractionLoggedAt());
+        }
+        return sessions;
+    }
+
+    private static void writeCsvLine(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(Objects.toString(values[i], "")));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,23 +1,36 @@
 package com.focusbuddy.service;
 
+import com.focusbuddy.dto.CursorPage;
+import com.focusbuddy.dto.DailySummary;
+import com.focusbuddy.dto.response.SessionResponse;
 import com.focusbuddy.exception.ResourceNotFoundException;
 import com.focusbuddy.exception.UnauthorizedException;
+import com.focusbuddy.mapper.SessionMapper;
 import com.focusbuddy.model.DistractionLog;
 import com.focusbuddy.model.Session;
 import com.focusbuddy.model.SessionState;
 import com.focusbuddy.model.SessionType;
 import com.focusbuddy.model.User;
 import com.focusbuddy.repository.DistractionLogRepository;
+import com.focusbuddy.repository.SessionCursor;
+import com.focusbuddy.repository.SessionFilter;
 import com.focusbuddy.repository.SessionRepository;
 import com.focusbuddy.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service for managing focus sessions with proper state machine.
@@ -28,40 +41,69 @@ import java.util.Optional;
 @Slf4j
 public class SessionService {
 
+    private static final String ACTIVE_SESSION_EXISTS = "User already has an active session";
+    private static final String ACTIVE_SESSION_INDEX = "ux_sessions_user_active";
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+
     private final SessionRepository sessionRepository;
     private final UserRepository userRepository;
     private final DistractionLogRepository distractionLogRepository;
     private final StreakService streakService;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final DistractionLogBuffer distractionLogBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DailySummaryService dailySummaryService;
+    private final UserDailyStatsService userDailyStatsService;
+    private final AnalyticsResultCache analyticsResultCache;
+    private final SessionMapper sessionMapper;
 
     /**
      * Start a new focus session.
-     * Only one active session per user is allowed.
+     * Only one active session per user is allowed. The database enforces it
+     * (ux_sessions_user_active), so concurrent starts cannot both succeed;
+     * the registry check only turns away the common case without an insert.
+     * A registry entry is checked against its row first, since the session
+     * may have ended through another node.
      */
     @Transactional
     public Session startSession(Long userId, String taskDescription, int durationMinutes, SessionType sessionType) {
         log.debug("Starting session for user: {}, task: {}", userId, taskDescription);
-        Optional<Session> activeSession = sessionRepository.findActiveSessionByUserId(userId);
-        if (activeSession.isPresent()) {
-            throw new IllegalStateException("User already has an active session");
+        Optional<ActiveSession> known = activeSessionRegistry.find(userId);
+        if (known.isPresent()) {
+            if (sessionRepository.existsActiveById(known.get().sessionId())) {
+                throw new IllegalStateException(ACTIVE_SESSION_EXISTS);
+            }
+            activeSessionRegistry.evict(userId, known.get().sessionId());
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        // The caller is authenticated from token claims; a reference avoids a user lookup
+        User user = userRepository.getReferenceById(userId);
 
         Session session = new Session();
         session.setUser(user);
         session.setStatus(SessionState.STARTED);
         session.setTaskDescription(taskDescription);
         session.setPlannedDuration(durationMinutes);
-        session.setStartedAt(LocalDateTime.now());
+        // As stored, so the registry snapshot that later transitions work from equals the row
+        session.setStartedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         session.setSessionDate(java.time.LocalDate.now());
         session.setSessionType(sessionType != null ? sessionType : SessionType.FOCUS);
 
-        Session savedSession = sessionRepository.save(session);
-        // Force flush to ensure persistence immediately (helpful for testing/debugging)
-        sessionRepository.flush();
+        Session savedSession;
+        try {
+            // Flush now so a violation surfaces here rather than at commit
+            savedSession = sessionRepository.saveAndFlush(session);
+        } catch (DataIntegrityViolationException e) {
+            if (isActiveSessionConflict(e)) {
+                throw new IllegalStateException(ACTIVE_SESSION_EXISTS);
+            }
+            throw e;
+        }
         log.debug("Session started and saved with ID: {}", savedSession.getId());
+        userDailyStatsService.recordStarted(userId, savedSession.getStartedAt().toLocalDate());
 
+        activeSessionRegistry.put(savedSession);
+        publish(userId, savedSession.getId(), SessionChangedEvent.Type.STARTED, savedSession);
         return savedSession;
     }
 
@@ -70,9 +112,7 @@ public class SessionService {
      */
     @Transactional
     public Session pauseSession(Long userId, Long sessionId) {
-        Session session = getSessionWithOwnershipCheck(userId, sessionId);
-        session.transitionTo(SessionState.PAUSED);
-        return sessionRepository.save(session);
+        return transition(userId, sessionId, SessionState.PAUSED, null);
     }
 
     /**
@@ -80,9 +120,7 @@ public class SessionService {
      */
     @Transactional
     public Session resumeSession(Long userId, Long sessionId) {
-        Session session = getSessionWithOwnershipCheck(userId, sessionId);
-        session.transitionTo(SessionState.RESUMED);
-        return sessionRepository.save(session);
+        return transition(userId, sessionId, SessionState.RESUMED, null);
     }
 
     /**
@@ -91,33 +129,56 @@ public class SessionService {
     @Transactional
     public Session endSession(Long userId, Long sessionId, String reflection, SessionState status) {
         log.debug("Ending session {} for user {}", sessionId, userId);
-        Session session = getSessionWithOwnershipCheck(userId, sessionId);
-
-        session.setReflection(reflection);
         SessionState targetState = (status == SessionState.ABORTED) ? SessionState.ABORTED : SessionState.COMPLETED;
-        session.transitionTo(targetState);
+        Session endedSession = transition(userId, sessionId, targetState, reflection);
+        afterEnd(userId, endedSession);
+        return endedSession;
+    }
 
-        // Calculate and set actual duration
-        session.setActualDuration((int) session.getActualFocusSeconds());
+    /**
+     * End a session its client abandoned, as of {@code endedAt} rather than
+     * now, so the time after the client went away is not counted.
+     *
+     * @param from the states the caller saw; nothing happens if the user
+     *             moved the session on since
+     * @return false if the session was no longer in one of {@code from}
+     */
+    @Transactional
+    public boolean expireSession(Long userId, Long sessionId, Set<SessionState> from, SessionState targetState,
+            LocalDateTime endedAt) {
+        Optional<Session> endedSession = tryTransition(userId, sessionId, from, targetState, endedAt, null);
+        if (endedSession.isEmpty()) {
+            return false;
+        }
+        afterEnd(userId, endedSession.get());
+        log.info("Session {} of user {} auto-ended as {}", sessionId, userId, targetState);
+        return true;
+    }
 
-        Session savedSession = sessionRepository.save(session);
-        sessionRepository.flush();
-        log.debug("Session ended and saved with ID: {}. Actual duration: {}", savedSession.getId(),
-                savedSession.getActualDuration());
+    private void afterEnd(Long userId, Session endedSession) {
+        log.debug("Session {} ended. Actual duration: {}", endedSession.getId(), endedSession.getActualDuration());
+        if (distractionLogBuffer.isEnabled()) {
+            // This session's buffered distractions commit with its end
+            distractionLogBuffer.flushSession(endedSession.getId());
+        }
+        // Adding a distraction does not bump the version, so the snapshot's list
+        // can miss one committed just before this end; count from the table
+        endedSession.getDistractionLogs().clear();
+        endedSession.getDistractionLogs().addAll(distractionLogRepository.findBySessionId(endedSession.getId()));
+        userDailyStatsService.recordEnded(userId, endedSession);
 
         // Update streak on session completion
-        if (targetState == SessionState.COMPLETED) {
+        if (endedSession.getStatus() == SessionState.COMPLETED) {
             streakService.updateStreak(userId);
         }
-
-        return savedSession;
     }
 
     /**
      * Get a specific session by ID (with ownership check).
      */
+    @Transactional(readOnly = true)
     public Session getSession(Long userId, Long sessionId) {
-        return getSessionWithOwnershipCheck(userId, sessionId);
+        return withDistractionLogs(getSessionWithOwnershipCheck(userId, sessionId));
     }
 
     /**
@@ -125,7 +186,10 @@ public class SessionService {
      */
     @Transactional
     public DistractionLog addDistraction(Long userId, Long sessionId, String description) {
-        Session session = getSessionWithOwnershipCheck(userId, sessionId);
+        // Optimistic lock: fails at commit if the session is ended concurrently
+        Session session = sessionRepository.findLockedById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
+        checkOwnership(session, userId);
 
         if (!session.isActive()) {
             throw new IllegalStateException("Can only add distractions to an active session");
@@ -136,57 +200,231 @@ public class SessionService {
         log.setDescription(description);
         log.setLoggedAt(LocalDateTime.now());
 
-        return distractionLogRepository.save(log);
+        DistractionLog savedLog = distractionLogRepository.save(log);
+        activeSessionRegistry.addDistraction(userId, sessionId, savedLog);
+        publish(userId, sessionId, SessionChangedEvent.Type.DISTRACTION, null);
+        return savedLog;
+    }
+
+    /**
+     * Add several distractions to an active session in one call.
+     *
+     * The session is checked under a shared row lock, so an end running at
+     * the same time either sees these logs (its guarded update waits for
+     * this commit and then writes the session's buffered rows) or makes this
+     * call fail.
+     * With the write-behind buffer enabled the logs are queued after commit
+     * and returned without ids; rows queued after an end has written the
+     * session's buffer are left to the background flush. Otherwise they are
+     * inserted as one JDBC batch.
+     */
+    @Transactional
+    public List<DistractionLog> addDistractions(Long userId, Long sessionId, List<String> descriptions) {
+        Session session = sessionRepository.findForShareById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
+        checkOwnership(session, userId);
+        if (!session.isActive()) {
+            throw new IllegalStateException("Can only add distractions to an active session");
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        if (distractionLogBuffer.isEnabled()) {
+            distractionLogBuffer.add(descriptions.stream()
+                    .map(description -> new DistractionLogBuffer.PendingDistraction(sessionId, description, now))
+                    .toList());
+            activeSessionRegistry.addDistractions(userId, sessionId, descriptions.stream()
+                    .map(description -> new ActiveSession.Distraction(null, description, now))
+                    .toList());
+            publish(userId, sessionId, SessionChangedEvent.Type.DISTRACTION, null);
+            return descriptions.stream()
+                    .map(description -> newDistractionLog(null, description, now))
+                    .toList();
+        }
+
+        List<DistractionLog> saved = distractionLogRepository.saveAll(descriptions.stream()
+                .map(description -> newDistractionLog(session, description, now))
+                .toList());
+        activeSessionRegistry.addDistractions(userId, sessionId, saved.stream()
+                .map(log -> new ActiveSession.Distraction(log.getId(), log.getDescription(), log.getLoggedAt()))
+                .toList());
+        publish(userId, sessionId, SessionChangedEvent.Type.DISTRACTION, null);
+        return saved;
+    }
+
+    public boolean isDistractionBufferEnabled() {
+        return distractionLogBuffer.isEnabled();
     }
 
     /**
-     * Get the current active session for a user.
+     * Get the current active session for a user, served from the registry.
      */
-    public Optional<Session> getActiveSession(Long userId) {
-        return sessionRepository.findActiveSessionByUserId(userId);
+    public Optional<ActiveSession> getActiveSession(Long userId) {
+        return activeSessionRegistry.find(userId);
     }
 
     /**
-     * Get all sessions for a user (history).
+     * Get one page of a user's session history, newest first.
+     *
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
      */
-    public List<Session> getSessionHistory(Long userId) {
-        return sessionRepository.findByUserIdOrderByStartedAtDesc(userId);
+    @Transactional(readOnly = true)
+    public CursorPage<Session> getSessionHistory(Long userId, SessionFilter filter, String cursor, int size) {
+        List<Session> sessions = sessionRepository.findPage(userId, filter, SessionCursor.decode(cursor), size + 1);
+        CursorPage<Session> page = CursorPage.of(sessions, size, session -> SessionCursor.of(session).encode());
+        page.items().forEach(this::withDistractionLogs);
+        return page;
     }
 
     /**
-     * Get daily summary statistics.
+     * Get daily summary statistics, with the day's sessions as
+     * {@link SessionResponse}s.
      */
+    @Transactional(readOnly = true)
     public java.util.Map<String, Object> getDailySummary(Long userId, java.time.LocalDate date) {
-        Integer totalFocusSeconds = sessionRepository.sumActualDurationByUserIdAndDateAndType(
-                userId, date, SessionType.FOCUS);
-        Integer totalBreakSeconds = sessionRepository.sumActualDurationByUserIdAndDateAndType(
-                userId, date, SessionType.BREAK);
+        return analyticsResultCache.getUnlessRunning(userId, "session-daily-summary", date,
+                () -> computeDailySummary(userId, date));
+    }
 
-        int focusTime = totalFocusSeconds != null ? totalFocusSeconds : 0;
-        int breakTime = totalBreakSeconds != null ? totalBreakSeconds : 0;
+    private java.util.Map<String, Object> computeDailySummary(Long userId, java.time.LocalDate date) {
+        DailySummary summary = dailySummaryService.summarize(userId, date);
+        long focusTime = summary.secondsOf(SessionType.FOCUS);
+        long breakTime = summary.secondsOf(SessionType.BREAK);
 
         double productivity = 0.0;
         if (focusTime + breakTime > 0) {
             productivity = (double) focusTime / (focusTime + breakTime) * 100.0;
         }
 
-        List<Session> sessions = sessionRepository.findAllByUserIdAndSessionDate(userId, date);
+        // Mapped here, so the cache holds immutable responses rather than entities
+        List<SessionResponse> sessions = sessionMapper.toResponseList(sessionRepository.findStartedBetween(userId,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
 
         return java.util.Map.of(
-                "totalFocusMinutes", focusTime / 60,
-                "totalBreakMinutes", breakTime / 60,
+                "totalFocusMinutes", (int) (focusTime / 60),
+                "totalBreakMinutes", (int) (breakTime / 60),
                 "productivityScore", (int) productivity,
                 "sessions", sessions);
     }
 
+    /**
+     * Responses are mapped outside the transaction (open-in-view is off),
+     * so the lazy distraction log collection is loaded here.
+     */
+    private Session withDistractionLogs(Session session) {
+        Hibernate.initialize(session.getDistractionLogs());
+        return session;
+    }
+
+    private Session transition(Long userId, Long sessionId, SessionState target, String reflection) {
+        return tryTransition(userId, sessionId, SessionState.sourcesOf(target), target, LocalDateTime.now(),
+                reflection)
+                .orElseThrow(() -> new IllegalStateException("Cannot transition from "
+                        + getSessionWithOwnershipCheck(userId, sessionId).getStatus() + " to " + target));
+    }
+
+    /**
+     * Apply a transition as one guarded update.
+     *
+     * The new values are worked out here from the session's state before
+     * the transition, and the update only matches the version they were
+     * worked out from. That state is the registry snapshot, so a transition
+     * is a single statement; the version match proves the snapshot's state
+     * was current, though not its distractions, which ends reload. With no
+     * snapshot, or one that is behind the row (the registry is only updated
+     * after commit), the row is read and the update retried.
+     *
+     * @return the updated session, or empty if it is no longer in one of {@code from}
+     */
+    private Optional<Session> tryTransition(Long userId, Long sessionId, Set<SessionState> from,
+            SessionState target, LocalDateTime now, String reflection) {
+        Optional<ActiveSession> snapshot = activeSessionRegistry.find(userId)
+                .filter(active -> active.sessionId().equals(sessionId));
+        LocalDateTime at = now.truncatedTo(ChronoUnit.MICROS); // as stored
+
+        for (int attempt = 0; attempt < MAX_TRANSITION_ATTEMPTS; attempt++) {
+            boolean fromSnapshot = attempt == 0 && snapshot.isPresent();
+            ActiveSession before = fromSnapshot ? snapshot.get() : readSnapshot(userId, sessionId);
+            if (!from.contains(before.status()) || !before.status().canTransitionTo(target)) {
+                if (fromSnapshot) {
+                    continue;
+                }
+                if (!before.status().isActive()) {
+                    // e.g. ended through another node
+                    activeSessionRegistry.evict(userId, sessionId);
+                }
+                return Optional.empty();
+            }
+
+            Session session = before.toSession();
+            session.transitionTo(target, at);
+            if (!target.isActive()) {
+                session.setReflection(reflection);
+                session.setActualDuration((int) session.getActualFocusSeconds());
+            }
+            if (update(userId, session, before.version()) == 1) {
+                session.setVersion(before.version() + 1);
+                if (target.isActive()) {
+                    activeSessionRegistry.put(session);
+                } else {
+                    activeSessionRegistry.remove(userId, sessionId);
+                }
+                publish(userId, sessionId, SessionChangedEvent.typeOf(target), session);
+                return Optional.of(session);
+            }
+        }
+        throw new OptimisticLockingFailureException("Session " + sessionId + " kept changing during " + target);
+    }
+
+    private int update(Long userId, Session session, Long version) {
+        return switch (session.getStatus()) {
+            case PAUSED -> sessionRepository.pause(session.getId(), userId, version, session.getPausedAt());
+            case RESUMED -> sessionRepository.resume(session.getId(), userId, version,
+                    session.getTotalPausedSeconds(), session.getResumedAt());
+            case COMPLETED, ABORTED -> sessionRepository.end(session.getId(), userId, version, session.getStatus(),
+                    session.getReflection(), session.getTotalPausedSeconds(), session.getActualDuration(),
+                    session.getEndedAt());
+            case STARTED -> throw new IllegalArgumentException("Sessions are started, not transitioned to STARTED");
+        };
+    }
+
+    private ActiveSession readSnapshot(Long userId, Long sessionId) {
+        Session session = sessionRepository.findWithDistractionLogsById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
+        checkOwnership(session, userId);
+        return ActiveSession.from(session);
+    }
+
+    /**
+     * Listeners (device push) run once the surrounding transaction commits.
+     */
+    private void publish(Long userId, Long sessionId, SessionChangedEvent.Type type, Session session) {
+        eventPublisher.publishEvent(new SessionChangedEvent(userId, sessionId, type, session));
+    }
+
+    private static boolean isActiveSessionConflict(DataIntegrityViolationException e) {
+        // H2 reports index names upper-cased, Postgres as created
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(ACTIVE_SESSION_INDEX);
+    }
+
+    private static DistractionLog newDistractionLog(Session session, String description, LocalDateTime loggedAt) {
+        DistractionLog log = new DistractionLog();
+        log.setSession(session);
+        log.setDescription(description);
+        log.setLoggedAt(loggedAt);
+        return log;
+    }
+
     private Session getSessionWithOwnershipCheck(Long userId, Long sessionId) {
         Session session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
+        checkOwnership(session, userId);
+        return session;
+    }
 
+    private static void checkOwnership(Session session, Long userId) {
         if (!session.getUser().getId().equals(userId)) {
             throw new UnauthorizedException("You do not have permission to access this session");
         }
-
-        return session;
     }
 }
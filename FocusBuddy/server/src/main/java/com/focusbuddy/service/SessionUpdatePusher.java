@@ -0,0 +1,137 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.dto.response.SessionResponse;
+import com.focusbuddy.dto.response.SessionUpdateMessage;
+import com.focusbuddy.mapper.SessionMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Pushes committed session changes to every connected device of the user.
+ *
+ * Changes are coalesced per user: the first change schedules a send after
+ * the coalesce window, later changes in that window only replace the
+ * pending one, and the send carries the state at send time. A burst of
+ * taps therefore costs one frame per device.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SessionUpdatePusher {
+
+    static final String DESTINATION = "/queue/sessions";
+
+    private record Pending(SessionChangedEvent event, long committedAtNanos) {
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final SessionMapper sessionMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.websocket.coalesce-window:PT0.1S}")
+    private Duration coalesceWindow;
+
+    private final Map<Long, Pending> pendingByUser = new ConcurrentHashMap<>();
+    // Disconnect events can repeat and also fire for rejected CONNECTs, so track ids
+    private final Set<String> connectedSessions = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+    private Timer fanOutTimer;
+    private Counter sentCounter;
+    private Counter coalescedCounter;
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        meterRegistry.gauge("ws.connections", connectedSessions, Set::size);
+        fanOutTimer = Timer.builder("ws.session.push.latency")
+                .description("Time from commit of a session change to its push")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        sentCounter = meterRegistry.counter("ws.session.push.sent");
+        coalescedCounter = meterRegistry.counter("ws.session.push.coalesced");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        if (simpUserRegistry.getUser(event.userId().toString()) == null) {
+            return; // no device connected to this node
+        }
+        Pending added = new Pending(event, System.nanoTime());
+        // Keep the first commit time, so the latency covers the whole window
+        Pending pending = pendingByUser.merge(event.userId(), added,
+                (queued, latest) -> new Pending(latest.event(), queued.committedAtNanos()));
+        if (pending == added) {
+            scheduler.schedule(() -> push(event.userId()), coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            coalescedCounter.increment();
+        }
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        connectedSessions.add(SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders()));
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        connectedSessions.remove(event.getSessionId());
+    }
+
+    private void push(Long userId) {
+        Pending pending = pendingByUser.remove(userId);
+        if (pending == null) {
+            return;
+        }
+        SessionChangedEvent event = pending.event();
+        try {
+            messagingTemplate.convertAndSendToUser(userId.toString(), DESTINATION,
+                    new SessionUpdateMessage(event.type().name(), event.sessionId(), snapshot(event)));
+            sentCounter.increment();
+            fanOutTimer.record(System.nanoTime() - pending.committedAtNanos(), TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            log.warn("Failed to push session update to user {}", userId, e);
+        }
+    }
+
+    /**
+     * The registry holds the latest state of an active session, including
+     * changes made after the event; ended sessions come with the event.
+     */
+    private SessionResponse snapshot(SessionChangedEvent event) {
+        return activeSessionRegistry.find(event.userId())
+                .filter(active -> active.sessionId().equals(event.sessionId()))
+                .map(sessionMapper::toResponse)
+                .orElseGet(() -> event.session() != null ? sessionMapper.toResponse(event.session()) : null);
+    }
+}
@@ -1,7 +1,6 @@
 package com.focusbuddy.service;
 
 import com.focusbuddy.model.Streak;
-import com.focusbuddy.model.User;
 import com.focusbuddy.repository.StreakRepository;
 import com.focusbuddy.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,15 +18,8 @@ public class StreakService {
 
     @Transactional
     public void updateStreak(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        Streak streak = user.getStreak();
-        if (streak == null) {
-            streak = new Streak();
-            streak.setUser(user);
-            user.setStreak(streak);
-        }
+        Streak streak = streakRepository.findById(userId)
+                .orElseGet(() -> newStreak(userId));
 
         LocalDate today = LocalDate.now();
         LocalDate lastSession = streak.getLastSessionDate();
@@ -65,19 +57,19 @@ public class StreakService {
 
     @Transactional
     public Streak getStreak(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        Streak streak = user.getStreak();
-        if (streak == null) {
-            streak = new Streak();
-            streak.setUser(user);
-            streak.setCurrentStreak(0);
-            streak.setGraceDaysRemaining(1);
-            user.setStreak(streak);
-            streakRepository.save(streak);
-        }
+        return streakRepository.findById(userId)
+                .orElseGet(() -> streakRepository.save(newStreak(userId)));
+    }
 
+    /**
+     * Streak rows share the user's primary key, so a user reference is enough
+     * to create one without loading the user.
+     */
+    private Streak newStreak(Long userId) {
+        Streak streak = new Streak();
+        streak.setUser(userRepository.getReferenceById(userId));
+        streak.setCurrentStreak(0);
+        streak.setGraceDaysRemaining(1);
         return streak;
     }
 }
@@ -0,0 +1,9 @@
+package com.focusbuddy.service;
+
+/**
+ * Published by TaskService whenever a user's task is updated or deleted,
+ * the changes that can complete (or un-complete) it; listeners run after
+ * the change commits.
+ */
+public record TaskChangedEvent(Long userId, Long taskId) {
+}
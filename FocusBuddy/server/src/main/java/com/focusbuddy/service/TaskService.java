@@ -11,6 +11,7 @@ import com.focusbuddy.model.User;
 import com.focusbuddy.repository.TaskRepository;
 import com.focusbuddy.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +37,7 @@ public class TaskService {
 
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new task for the authenticated user.
@@ -45,13 +47,11 @@ public class TaskService {
      * @param userId  the ID of the authenticated user
      * @param request the task creation request with title, description, etc.
      * @return the newly created Task entity
-     * @throws ResourceNotFoundException if user not found
      */
     @Transactional
     public Task createTask(Long userId, CreateTaskRequest request) {
-        // Fetch user to establish relationship
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        // Reference the authenticated user without loading the row
+        User user = userRepository.getReferenceById(userId);
 
         // Create and populate task entity
         Task task = new Task();
@@ -147,7 +147,9 @@ public class TaskService {
             task.setDueDate(request.dueDate());
         }
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(userId, taskId));
+        return saved;
     }
 
     /**
@@ -166,6 +168,7 @@ public class TaskService {
         Task task = getTaskWithOwnershipCheck(userId, taskId);
         task.setDeleted(true);
         taskRepository.save(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(userId, taskId));
     }
 
     /**
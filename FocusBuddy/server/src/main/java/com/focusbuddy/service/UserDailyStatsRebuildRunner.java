@@ -0,0 +1,33 @@
+package com.focusbuddy.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds user_daily_stats for every user at startup, one transaction per
+ * user. Off by default; run once with
+ * {@code --app.stats.rollup.rebuild-on-startup=true} to backfill or repair.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.stats.rollup.rebuild-on-startup", havingValue = "true")
+public class UserDailyStatsRebuildRunner implements ApplicationRunner {
+
+    private final UserDailyStatsService userDailyStatsService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int users = 0;
+        long days = 0;
+        for (Long userId : userDailyStatsService.findUserIdsWithSessions()) {
+            days += userDailyStatsService.rebuild(userId);
+            users++;
+        }
+        log.info("Rebuilt daily stats: {} days for {} users", days, users);
+    }
+}
@@ -0,0 +1,121 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.UserDailyStats;
+import com.focusbuddy.repository.UserDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains user_daily_stats, the per-day rollup behind the productivity
+ * stats. SessionService records starts and ends in the transaction that
+ * makes them, so the rollup commits or rolls back with the session.
+ *
+ * A day's row is created by the first session started on it. Starts of one
+ * user are serialized by ux_sessions_user_active and ends only update rows,
+ * so the insert after a missed update does not race another insert.
+ *
+ * Each row also holds running totals up to its day, so stats for any range
+ * are two row lookups; a change to a past day is carried into the rows after it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserDailyStatsService {
+
+    private final UserDailyStatsRepository userDailyStatsRepository;
+
+    @Transactional
+    public void recordStarted(Long userId, LocalDate day) {
+        add(userId, day, 1, 0, SessionType.FOCUS, 0, 0);
+    }
+
+    /**
+     * Count an ended session on the day it started: its seconds if it was
+     * completed, and its distractions either way.
+     */
+    @Transactional
+    public void recordEnded(Long userId, Session session) {
+        boolean completed = session.getStatus() == SessionState.COMPLETED;
+        add(userId, session.getStartedAt().toLocalDate(), 0, completed ? 1 : 0, session.getSessionType(),
+                completed ? session.getActualDuration() : 0, session.getDistractionLogs().size());
+    }
+
+    /**
+     * Totals over [from, to] from the running totals of two days, however
+     * long the range.
+     */
+    @Transactional(readOnly = true)
+    public RangeTotals totalsBetween(Long userId, LocalDate from, LocalDate to) {
+        Optional<UserDailyStats> upTo = userDailyStatsRepository
+                .findFirstByUserIdAndStatDateLessThanEqualOrderByStatDateDesc(userId, to);
+        Optional<UserDailyStats> before = upTo.isEmpty() ? Optional.empty() : userDailyStatsRepository
+                .findFirstByUserIdAndStatDateLessThanEqualOrderByStatDateDesc(userId, from.minusDays(1));
+        return RangeTotals.of(upTo).minus(RangeTotals.of(before));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserDailyStats> findDays(Long userId, LocalDate from, LocalDate to) {
+        return userDailyStatsRepository.findByUserIdAndStatDateBetween(userId, from, to);
+    }
+
+    /**
+     * Recompute a user's rollup from focus_sessions, e.g. after a bulk import
+     * or a change to how the rollup is counted.
+     *
+     * @return the number of days written
+     */
+    @Transactional
+    public int rebuild(Long userId) {
+        userDailyStatsRepository.deleteAllByUserId(userId);
+        return userDailyStatsRepository.rebuild(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findUserIdsWithSessions() {
+        return userDailyStatsRepository.findUserIdsWithSessions();
+    }
+
+    public record RangeTotals(long sessionsStarted, long sessionsCompleted, long completedSeconds, int activeDays) {
+
+        static RangeTotals of(Optional<UserDailyStats> day) {
+            return day.map(d -> new RangeTotals(d.getCumSessionsStarted(), d.getCumSessionsCompleted(),
+                    d.getCumCompletedSeconds(), d.getCumActiveDays()))
+                    .orElse(new RangeTotals(0, 0, 0, 0));
+        }
+
+        RangeTotals minus(RangeTotals earlier) {
+            return new RangeTotals(sessionsStarted - earlier.sessionsStarted,
+                    sessionsCompleted - earlier.sessionsCompleted, completedSeconds - earlier.completedSeconds,
+                    activeDays - earlier.activeDays);
+        }
+    }
+
+    private void add(Long userId, LocalDate day, int started, int completed, SessionType type, long seconds,
+            int distractions) {
+        long focus = type == SessionType.FOCUS ? seconds : 0;
+        long breaks = type == SessionType.BREAK ? seconds : 0;
+        long meeting = type == SessionType.MEETING ? seconds : 0;
+        long other = type == SessionType.OTHER ? seconds : 0;
+
+        if (userDailyStatsRepository.increment(userId, day, started, completed, focus, breaks, meeting, other,
+                distractions) == 0) {
+            userDailyStatsRepository.insertDay(userId, day);
+            userDailyStatsRepository.increment(userId, day, started, completed, focus, breaks, meeting, other,
+                    distractions);
+        }
+
+        // The row is locked by the increment, so this sees whether this change made the day active
+        int activeDays = completed > 0
+                && userDailyStatsRepository.findSessionsCompleted(userId, day) == completed ? 1 : 0;
+        userDailyStatsRepository.addToRunningTotals(userId, day, started, completed, seconds, activeDays);
+    }
+}
@@ -0,0 +1,49 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Sequences for the pooled id generators of the high-volume tables.
+ *
+ * Hibernate cannot batch inserts into IDENTITY columns, so these tables
+ * now draw ids from sequences in blocks of 50 (the entities'
+ * allocationSize; the increments must match). Hibernate's pooled
+ * optimizer treats a fetched value as the upper end of its block, so each
+ * sequence starts one block past the table's current max id. Plain SQL
+ * cannot express that portably across PostgreSQL and H2, hence a Java
+ * migration.
+ */
+public class V6__Pooled_id_sequences extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String[][] SEQUENCES = {
+            {"focus_sessions", "focus_sessions_seq"},
+            {"distraction_logs", "distraction_logs_seq"},
+            {"tasks", "tasks_seq"},
+            {"refresh_tokens", "refresh_tokens_seq"},
+    };
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String[] sequence : SEQUENCES) {
+                long start = maxId(statement, sequence[0]) + ALLOCATION_SIZE;
+                statement.execute("CREATE SEQUENCE " + sequence[1]
+                        + " START WITH " + start + " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+        }
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+-- V10__user_daily_stats.sql
+-- Per-user, per-day rollup behind the productivity stats, keyed by the day a
+-- session started. Seconds are those of completed sessions, by session type;
+-- distractions are counted once their session has ended.
+
+CREATE TABLE user_daily_stats (
+    user_id BIGINT NOT NULL REFERENCES app_users(id) ON DELETE CASCADE,
+    stat_date DATE NOT NULL,
+    sessions_started INT NOT NULL DEFAULT 0,
+    sessions_completed INT NOT NULL DEFAULT 0,
+    focus_seconds BIGINT NOT NULL DEFAULT 0,
+    break_seconds BIGINT NOT NULL DEFAULT 0,
+    meeting_seconds BIGINT NOT NULL DEFAULT 0,
+    other_seconds BIGINT NOT NULL DEFAULT 0,
+    distraction_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, stat_date)
+);
+
+-- Backfill from existing sessions (same query as UserDailyStatsRepository.rebuild)
+INSERT INTO user_daily_stats (user_id, stat_date, sessions_started, sessions_completed,
+                              focus_seconds, break_seconds, meeting_seconds, other_seconds, distraction_count)
+SELECT s.user_id,
+       CAST(s.started_at AS DATE),
+       COUNT(*),
+       SUM(CASE WHEN s.status = 'COMPLETED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN s.status = 'COMPLETED' AND s.session_type = 'FOCUS' THEN COALESCE(s.actual_duration, 0) ELSE 0 END),
+       SUM(CASE WHEN s.status = 'COMPLETED' AND s.session_type = 'BREAK' THEN COALESCE(s.actual_duration, 0) ELSE 0 END),
+       SUM(CASE WHEN s.status = 'COMPLETED' AND s.session_type = 'MEETING' THEN COALESCE(s.actual_duration, 0) ELSE 0 END),
+       SUM(CASE WHEN s.status = 'COMPLETED' AND s.session_type = 'OTHER' THEN COALESCE(s.actual_duration, 0) ELSE 0 END),
+       SUM(CASE WHEN s.status IN ('COMPLETED', 'ABORTED') THEN COALESCE(d.distractions, 0) ELSE 0 END)
+FROM focus_sessions s
+LEFT JOIN (SELECT session_id, COUNT(*) AS distractions
+           FROM distraction_logs
+           GROUP BY session_id) d ON d.session_id = s.id
+GROUP BY s.user_id, CAST(s.started_at AS DATE);
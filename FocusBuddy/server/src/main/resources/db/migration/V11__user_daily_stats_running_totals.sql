@@ -0,0 +1,24 @@
+-- V11__user_daily_stats_running_totals.sql
+-- Running totals per user up to and including stat_date, so the stats for any
+-- date range are the difference of two rows. A day is active once it has a
+-- completed session.
+
+ALTER TABLE user_daily_stats ADD COLUMN cum_sessions_started BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_daily_stats ADD COLUMN cum_sessions_completed BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_daily_stats ADD COLUMN cum_completed_seconds BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_daily_stats ADD COLUMN cum_active_days INT NOT NULL DEFAULT 0;
+
+UPDATE user_daily_stats
+SET cum_sessions_started = (
+        SELECT SUM(p.sessions_started) FROM user_daily_stats p
+        WHERE p.user_id = user_daily_stats.user_id AND p.stat_date <= user_daily_stats.stat_date),
+    cum_sessions_completed = (
+        SELECT SUM(p.sessions_completed) FROM user_daily_stats p
+        WHERE p.user_id = user_daily_stats.user_id AND p.stat_date <= user_daily_stats.stat_date),
+    cum_completed_seconds = (
+        SELECT SUM(p.focus_seconds + p.break_seconds + p.meeting_seconds + p.other_seconds) FROM user_daily_stats p
+        WHERE p.user_id = user_daily_stats.user_id AND p.stat_date <= user_daily_stats.stat_date),
+    cum_active_days = (
+        SELECT COUNT(*) FROM user_daily_stats p
+        WHERE p.user_id = user_daily_stats.user_id AND p.stat_date <= user_daily_stats.stat_date
+          AND p.sessions_completed > 0);
@@ -0,0 +1,4 @@
+-- V3__refresh_tokens_revoked_index.sql
+-- Lets the refresh token reaper find revoked rows past their retention window
+
+CREATE INDEX idx_refresh_tokens_revoked ON refresh_tokens(revoked_at);
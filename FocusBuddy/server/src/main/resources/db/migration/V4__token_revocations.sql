@@ -0,0 +1,9 @@
+-- V4__token_revocations.sql
+-- Per-user access token revocation epochs (logout from all devices)
+
+CREATE TABLE token_revocations (
+    user_id BIGINT PRIMARY KEY REFERENCES app_users(id) ON DELETE CASCADE,
+    epoch TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_token_revocations_epoch ON token_revocations(epoch);
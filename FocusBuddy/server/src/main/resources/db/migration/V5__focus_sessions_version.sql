@@ -0,0 +1,12 @@
+-- V5__focus_sessions_version.sql
+-- Optimistic locking for focus sessions, plus the columns and states the
+-- Session entity has used since session types and analytics were added
+
+ALTER TABLE focus_sessions ADD COLUMN session_type VARCHAR(20) NOT NULL DEFAULT 'FOCUS';
+ALTER TABLE focus_sessions ADD COLUMN actual_duration INT DEFAULT 0;
+ALTER TABLE focus_sessions ADD COLUMN session_date DATE;
+ALTER TABLE focus_sessions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE focus_sessions DROP CONSTRAINT chk_session_status;
+ALTER TABLE focus_sessions ADD CONSTRAINT chk_session_status
+    CHECK (status IN ('STARTED', 'PAUSED', 'RESUMED', 'COMPLETED', 'ABORTED', 'ENDED'));
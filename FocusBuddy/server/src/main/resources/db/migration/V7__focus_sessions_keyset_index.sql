@@ -0,0 +1,6 @@
+-- V7__focus_sessions_keyset_index.sql
+-- Keyset pagination over a user's sessions orders by (started_at, id); the
+-- id tiebreaker makes the cursor unique. Supersedes idx_sessions_user_start.
+
+CREATE INDEX idx_sessions_user_start_id ON focus_sessions(user_id, started_at DESC, id DESC);
+DROP INDEX idx_sessions_user_start;
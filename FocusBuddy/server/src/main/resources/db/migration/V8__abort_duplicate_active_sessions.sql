@@ -0,0 +1,15 @@
+-- V8__abort_duplicate_active_sessions.sql
+-- Before V9 makes "one active session per user" a constraint: a concurrent
+-- double start could leave a user with several. Keep the newest, abort the rest.
+
+UPDATE focus_sessions
+SET status = 'ABORTED',
+    ended_at = COALESCE(paused_at, CURRENT_TIMESTAMP),
+    version = version + 1
+WHERE status IN ('STARTED', 'PAUSED', 'RESUMED')
+  AND EXISTS (
+      SELECT 1 FROM focus_sessions newer
+      WHERE newer.user_id = focus_sessions.user_id
+        AND newer.status IN ('STARTED', 'PAUSED', 'RESUMED')
+        AND (newer.started_at > focus_sessions.started_at
+             OR (newer.started_at = focus_sessions.started_at AND newer.id > focus_sessions.id)));
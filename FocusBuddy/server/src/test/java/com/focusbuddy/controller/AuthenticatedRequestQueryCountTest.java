@@ -0,0 +1,148 @@
+package com.focusbuddy.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.focusbuddy.model.Role;
+import com.focusbuddy.model.Streak;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.security.JwtTokenProvider;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Authenticated requests must be served from token claims alone:
+ * no controller may query the app_users table.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthenticatedRequestQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        User user = TestUsers.newUser("count");
+        Streak streak = new Streak();
+        streak.setUser(user);
+        user.setStreak(streak);
+        user = userRepository.save(user);
+
+        bearer = "Bearer " + jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail(), Role.USER);
+        SqlStatementRecorder.clear();
+    }
+
+    @Test
+    void sessionControllerDoesNotQueryUsers() throws Exception {
+        JsonNode started = json(perform(post("/api/sessions/start")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"task\":\"Write tests\",\"duration\":25,\"sessionType\":\"FOCUS\"}"), 201));
+        long sessionId = started.get("id").asLong();
+
+        perform(get("/api/sessions/current"), 200);
+        perform(post("/api/sessions/" + sessionId + "/distractions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"Phone\"}"), 201);
+        perform(post("/api/sessions/" + sessionId + "/distractions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"distractions\":[{\"description\":\"Mail\"},{\"description\":\"Chat\"}]}"), 201);
+        perform(post("/api/sessions/" + sessionId + "/pause"), 200);
+        perform(post("/api/sessions/" + sessionId + "/resume"), 200);
+        perform(get("/api/sessions/" + sessionId), 200);
+        perform(post("/api/sessions/" + sessionId + "/end")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reflection\":\"Done\",\"status\":\"COMPLETED\"}"), 200);
+        perform(get("/api/sessions"), 200);
+        perform(get("/api/sessions/summary"), 200);
+
+        assertNoUserQueries();
+    }
+
+    @Test
+    void taskControllerDoesNotQueryUsers() throws Exception {
+        JsonNode task = json(perform(post("/api/v1/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Ship it\"}"), 201));
+        long taskId = task.get("id").asLong();
+
+        perform(get("/api/v1/tasks"), 200);
+        perform(get("/api/v1/tasks/" + taskId), 200);
+        perform(get("/api/v1/tasks/count"), 200);
+
+        assertNoUserQueries();
+    }
+
+    @Test
+    void statsControllerDoesNotQueryUsers() throws Exception {
+        String today = LocalDate.now().toString();
+        perform(get("/api/v1/stats").param("range", "WEEKLY"), 200);
+        perform(get("/api/v1/stats").param("from", "2020-01-01").param("to", today), 200);
+        perform(get("/api/v1/stats").param("from", "2020-01-01"), 400);
+        perform(get("/api/v1/stats").param("from", "").param("to", today), 400);
+        perform(get("/api/v1/stats").param("from", "2020-13-01").param("to", today), 400);
+        perform(get("/api/v1/stats").param("range", "MONTHLY").param("from", "2020-01-01").param("to", today), 400);
+        perform(get("/api/v1/stats/timeline").param("from", today).param("to", today), 200);
+
+        assertNoUserQueries();
+    }
+
+    @Test
+    void analyticsControllerDoesNotQueryUsers() throws Exception {
+        perform(get("/api/analytics/daily-summary"), 200);
+
+        assertNoUserQueries();
+    }
+
+    @Test
+    void streakControllerDoesNotQueryUsers() throws Exception {
+        perform(get("/api/v1/streaks/me"), 200);
+
+        assertNoUserQueries();
+    }
+
+    private String perform(MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        return mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().is(expectedStatus))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private JsonNode json(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+
+    private void assertNoUserQueries() {
+        assertThat(SqlStatementRecorder.statementsTouching("app_users")).isEmpty();
+    }
+}
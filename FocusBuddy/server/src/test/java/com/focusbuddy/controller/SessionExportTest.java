@@ -0,0 +1,176 @@
+package com.focusbuddy.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.focusbuddy.model.DistractionLog;
+import com.focusbuddy.model.Role;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.DistractionLogRepository;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.security.JwtTokenProvider;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SessionExportTest {
+
+    private static final int SESSIONS = 30;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private DistractionLogRepository distractionLogRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        User user = TestUsers.create(userRepository, "export");
+        bearer = "Bearer " + jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail(), Role.USER);
+
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            Session session = new Session();
+            session.setUser(user);
+            session.setTaskDescription(i == 0 ? "Write \"docs\", then\nreview" : "Task " + i);
+            session.setPlannedDuration(25);
+            session.setActualDuration(1500);
+            session.setStartedAt(START.plusHours(i));
+            session.setEndedAt(START.plusHours(i).plusMinutes(25));
+            session.setStatus(SessionState.COMPLETED);
+            session.setSessionType(SessionType.FOCUS);
+            sessions.add(session);
+        }
+        List<DistractionLog> logs = new ArrayList<>();
+        // Every other session, starting with the first, gets two distractions
+        for (Session session : sessionRepository.saveAll(sessions)) {
+            if (session.getStartedAt().getHour() % 2 == 0) {
+                continue;
+            }
+            for (int i = 0; i < 2; i++) {
+                DistractionLog log = new DistractionLog();
+                log.setSession(session);
+                log.setDescription("Tap " + i);
+                log.setLoggedAt(session.getStartedAt().plusMinutes(i + 1));
+                logs.add(log);
+            }
+        }
+        distractionLogRepository.saveAll(logs);
+    }
+
+    @Test
+    void testNdjsonHasOneLinePerSessionWithNestedDistractions() throws Exception {
+        SqlStatementRecorder.clear();
+
+        MockHttpServletResponse response = export(get("/api/v1/export/sessions"));
+
+        assertThat(response.getContentType()).startsWith("application/x-ndjson");
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(SESSIONS);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("taskDescription").asText()).isEqualTo("Write \"docs\", then\nreview");
+        assertThat(first.get("distractionLogs")).hasSize(2);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("distractionLogs")).isEmpty();
+        assertThat(second.get("startedAt").asText()).isEqualTo("2024-01-01T10:00:00");
+
+        // One streaming query, no per-session loads
+        assertThat(SqlStatementRecorder.statementsTouching("focus_sessions")).hasSize(1);
+    }
+
+    @Test
+    void testCsvHasOneLinePerDistractionAndEscapesFields() throws Exception {
+        MockHttpServletResponse response = export(get("/api/v1/export/sessions").param("format", "csv"));
+
+        assertThat(response.getContentType()).startsWith("text/csv");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("sessions.csv");
+        String csv = response.getContentAsString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("session_id,status,session_type,");
+        assertThat(csv).contains("\"Write \"\"docs\"\", then\nreview\"");
+        // Header, 15 sessions without distractions, 15 with two each
+        assertThat(csv.split("\r\n")).hasSize(1 + SESSIONS / 2 + SESSIONS);
+    }
+
+    @Test
+    void testGzipWhenAccepted() throws Exception {
+        MockHttpServletResponse response = export(get("/api/v1/export/sessions")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            String ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(ndjson.split("\n")).hasSize(SESSIONS);
+        }
+    }
+
+    @Test
+    void testNoGzipWhenRefusedByQuality() throws Exception {
+        MockHttpServletResponse response = export(get("/api/v1/export/sessions")
+                .header(HttpHeaders.ACCEPT_ENCODING, "GZIP;q=0, *;q=0.5"));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8).split("\n")).hasSize(SESSIONS);
+    }
+
+    @Test
+    void testUnknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/export/sessions").param("format", "xml")
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletResponse export(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+}
@@ -0,0 +1,129 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.model.Task;
+import com.focusbuddy.model.User;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level cache behaviour for User and Task plus the
+ * findByEmail query cache, including invalidation on write.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = TestUsers.create(userRepository, "cache");
+
+        statistics.clear();
+        SqlStatementRecorder.clear();
+    }
+
+    @Test
+    void userByIdIsServedFromCacheAfterFirstLoad() {
+        userRepository.findById(user.getId()).orElseThrow();
+        SqlStatementRecorder.clear();
+
+        userRepository.findById(user.getId()).orElseThrow();
+        userRepository.findById(user.getId()).orElseThrow();
+
+        assertThat(SqlStatementRecorder.statementsTouching("app_users")).isEmpty();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void userUpdateRefreshesCachedEntry() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User managed = userRepository.findById(user.getId()).orElseThrow();
+            managed.setHandle("renamed_" + user.getId());
+        });
+
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+
+        assertThat(reloaded.getHandle()).isEqualTo("renamed_" + user.getId());
+    }
+
+    @Test
+    void passwordHashUpdateKeepsOtherChangesAndEvictsCachedUser() {
+        User stale = userRepository.findById(user.getId()).orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> {
+            User managed = userRepository.findById(user.getId()).orElseThrow();
+            managed.setHandle("renamed_" + user.getId());
+        });
+
+        assertThat(userRepository.updatePasswordHash(user.getId(), "stale-hash", "rehashed")).isZero();
+        assertThat(userRepository.updatePasswordHash(user.getId(), stale.getPasswordHash(), "rehashed")).isEqualTo(1);
+
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(reloaded.getPasswordHash()).isEqualTo("rehashed");
+        assertThat(reloaded.getHandle()).isEqualTo("renamed_" + user.getId());
+    }
+
+    @Test
+    void findByEmailUsesQueryCacheUntilUsersTableChanges() {
+        userRepository.findByEmail(user.getEmail()).orElseThrow();
+        SqlStatementRecorder.clear();
+
+        userRepository.findByEmail(user.getEmail()).orElseThrow();
+        assertThat(SqlStatementRecorder.statementsTouching("app_users")).isEmpty();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User managed = userRepository.findById(user.getId()).orElseThrow();
+            managed.setEmail("moved-" + user.getEmail());
+        });
+
+        assertThat(userRepository.findByEmail(user.getEmail())).isEmpty();
+        assertThat(userRepository.findByEmail("moved-" + user.getEmail())).isPresent();
+    }
+
+    @Test
+    void taskIsCachedAndInvalidatedOnUpdate() {
+        Task task = new Task();
+        task.setUser(userRepository.getReferenceById(user.getId()));
+        task.setTitle("Cached task");
+        Task saved = taskRepository.save(task);
+        taskRepository.findById(saved.getId()).orElseThrow();
+        SqlStatementRecorder.clear();
+
+        taskRepository.findById(saved.getId()).orElseThrow();
+        assertThat(SqlStatementRecorder.statementsTouching("tasks")).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Task managed = taskRepository.findById(saved.getId()).orElseThrow();
+            managed.setTitle("Renamed task");
+        });
+
+        assertThat(taskRepository.findById(saved.getId()).orElseThrow().getTitle()).isEqualTo("Renamed task");
+    }
+}
@@ -0,0 +1,141 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.dto.CursorPage;
+import com.focusbuddy.dto.TimelineEntry;
+import com.focusbuddy.dto.response.SessionResponse;
+import com.focusbuddy.mapper.SessionMapper;
+import com.focusbuddy.model.DistractionLog;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.User;
+import com.focusbuddy.service.ProductivityService;
+import com.focusbuddy.service.SessionService;
+import com.focusbuddy.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * History and timeline pages must cost a fixed number of statements
+ * whatever the page size: no per-session distraction log queries.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionFetchQueryCountTest {
+
+    private static final int SESSIONS = 12;
+    private static final int LOGS_PER_SESSION = 3;
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 20);
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private ProductivityService productivityService;
+
+    @Autowired
+    private SessionMapper sessionMapper;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private DistractionLogRepository distractionLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User user = TestUsers.create(userRepository, "nplus1");
+        userId = user.getId();
+
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            Session session = new Session();
+            session.setUser(user);
+            session.setTaskDescription("Session " + i);
+            session.setPlannedDuration(25);
+            session.setStartedAt(DAY.atTime(8, 0).plusMinutes(30L * i));
+            session.setEndedAt(session.getStartedAt().plusMinutes(25));
+            session.setSessionDate(DAY);
+            session.setStatus(SessionState.COMPLETED);
+            session.setSessionType(SessionType.FOCUS);
+            sessions.add(session);
+        }
+        List<DistractionLog> logs = new ArrayList<>();
+        for (Session session : sessionRepository.saveAll(sessions)) {
+            for (int i = 0; i < LOGS_PER_SESSION; i++) {
+                DistractionLog log = new DistractionLog();
+                log.setSession(session);
+                log.setDescription("Tap " + i);
+                log.setLoggedAt(LocalDateTime.of(DAY, session.getStartedAt().toLocalTime()).plusMinutes(i));
+                logs.add(log);
+            }
+        }
+        distractionLogRepository.saveAll(logs);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, SESSIONS})
+    void testHistoryPageIsTwoQueries(int pageSize) {
+        statistics.clear();
+
+        CursorPage<SessionResponse> page = sessionService
+                .getSessionHistory(userId, SessionFilter.none(), null, pageSize)
+                .map(sessionMapper::toResponse);
+
+        assertThat(page.items()).hasSize(pageSize)
+                .allMatch(session -> session.distractionLogs().size() == LOGS_PER_SESSION);
+        // The page itself, then one batch load of the logs
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, SESSIONS})
+    void testTimelinePageIsOneQuery(int pageSize) {
+        statistics.clear();
+
+        CursorPage<TimelineEntry> page = productivityService.getTimeline(
+                userId, new SessionFilter(null, null, DAY, DAY), null, pageSize);
+
+        assertThat(page.items()).hasSize(pageSize)
+                .allMatch(entry -> entry.distractionCount() == LOGS_PER_SESSION)
+                .allMatch(entry -> entry.focusMinutes() == 25);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void testDailySummaryLoadsLogsInOneBatch() {
+        statistics.clear();
+
+        sessionService.getDailySummary(userId, DAY);
+
+        // One grouped aggregate, the session list and one batch load of the logs
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
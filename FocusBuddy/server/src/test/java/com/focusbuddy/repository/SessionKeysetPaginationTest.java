@@ -0,0 +1,118 @@
+package com.focusbuddy.repository;
+
+import com.focusbuddy.dto.CursorPage;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.User;
+import com.focusbuddy.service.SessionService;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionKeysetPaginationTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 10, 9, 0);
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private List<Long> newestFirst;
+
+    @BeforeEach
+    void setUp() {
+        User user = TestUsers.create(userRepository, "keyset");
+        userId = user.getId();
+
+        // Two sessions share a start time so the id tiebreaker is exercised
+        List<Session> sessions = List.of(
+                session(user, BASE, SessionState.COMPLETED, SessionType.FOCUS),
+                session(user, BASE.plusHours(1), SessionState.ABORTED, SessionType.FOCUS),
+                session(user, BASE.plusHours(1), SessionState.COMPLETED, SessionType.BREAK),
+                session(user, BASE.plusDays(1), SessionState.COMPLETED, SessionType.FOCUS),
+                session(user, BASE.plusDays(2), SessionState.COMPLETED, SessionType.FOCUS));
+        List<Session> saved = sessionRepository.saveAll(sessions);
+        newestFirst = List.of(saved.get(4).getId(), saved.get(3).getId(),
+                saved.get(2).getId(), saved.get(1).getId(), saved.get(0).getId());
+    }
+
+    @Test
+    void testPagesCoverEverySessionOnceWithoutCountQuery() {
+        SqlStatementRecorder.clear();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Session> page = sessionService.getSessionHistory(userId, SessionFilter.none(), cursor, 2);
+            page.items().forEach(session -> seen.add(session.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).isEqualTo(newestFirst);
+        assertThat(pages).isEqualTo(3);
+        assertThat(SqlStatementRecorder.statementsTouching("focus_sessions"))
+                .noneMatch(sql -> sql.contains("count("));
+    }
+
+    @Test
+    void testFiltersOnStatusTypeAndDateRange() {
+        SessionFilter completedFocus = new SessionFilter(SessionState.COMPLETED, SessionType.FOCUS, null, null);
+        assertThat(ids(completedFocus)).containsExactly(newestFirst.get(0), newestFirst.get(1), newestFirst.get(4));
+
+        SessionFilter firstDay = new SessionFilter(null, null, BASE.toLocalDate(), BASE.toLocalDate());
+        assertThat(ids(firstDay)).containsExactly(newestFirst.get(2), newestFirst.get(3), newestFirst.get(4));
+
+        SessionFilter breaks = new SessionFilter(null, SessionType.BREAK, null, null);
+        assertThat(ids(breaks)).containsExactly(newestFirst.get(2));
+    }
+
+    @Test
+    void testRejectsMalformedCursorAndInvertedRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> sessionService.getSessionHistory(userId, SessionFilter.none(), "not-a-cursor", 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SessionFilter(null, null, LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1)));
+    }
+
+    private List<Long> ids(SessionFilter filter) {
+        return sessionService.getSessionHistory(userId, filter, null, 10).items().stream()
+                .map(Session::getId)
+                .toList();
+    }
+
+    private static Session session(User user, LocalDateTime startedAt, SessionState status, SessionType type) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setTaskDescription("Keyset");
+        session.setPlannedDuration(25);
+        session.setStartedAt(startedAt);
+        session.setEndedAt(startedAt.plusMinutes(25));
+        session.setSessionDate(startedAt.toLocalDate());
+        session.setStatus(status);
+        session.setSessionType(type);
+        return session;
+    }
+}
@@ -0,0 +1,139 @@
+package com.focusbuddy.security;
+
+import com.focusbuddy.model.Role;
+import com.focusbuddy.model.TokenRevocation;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.TokenRevocationRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AccessTokenRevocationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private AccessTokenRevocations accessTokenRevocations;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, "revoke");
+        bearer = "Bearer " + jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail(), Role.USER);
+    }
+
+    @Test
+    void testLogoutAllRejectsPreviouslyIssuedAccessTokens() throws Exception {
+        mockMvc.perform(get("/api/v1/streaks/me").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/auth/logout-all").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/streaks/me").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().is4xxClientError());
+        assertThat(tokenRevocationRepository.findById(user.getId())).isPresent();
+    }
+
+    @Test
+    void testTokenIssuedRightAfterLogoutAllStaysValid() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/logout-all").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNoContent());
+
+        // Same second as the epoch, as with an immediate re-login
+        String relogin = "Bearer " + jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail(), Role.USER);
+
+        mockMvc.perform(get("/api/v1/streaks/me").header(HttpHeaders.AUTHORIZATION, relogin))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testRolledBackRevocationIsNotApplied() {
+        AccessTokenClaims claims = jwtTokenProvider.verifyAccessToken(bearer.substring(7)).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            accessTokenRevocations.revokeAll(user.getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(accessTokenRevocations.isRevoked(claims)).isFalse();
+    }
+
+    @Test
+    void testTokensIssuedAfterEpochStayValid() {
+        AccessTokenClaims claims = jwtTokenProvider.verifyAccessToken(bearer.substring(7)).orElseThrow();
+
+        tokenRevocationRepository.save(revocation(claims.issuedAt().minusSeconds(60)));
+        accessTokenRevocations.pollRevocations();
+
+        assertThat(accessTokenRevocations.isRevoked(claims)).isFalse();
+    }
+
+    @Test
+    void testEpochLookupIsCachedAfterFirstRequest() {
+        AccessTokenClaims claims = jwtTokenProvider.verifyAccessToken(bearer.substring(7)).orElseThrow();
+        accessTokenRevocations.isRevoked(claims);
+        SqlStatementRecorder.clear();
+
+        accessTokenRevocations.isRevoked(claims);
+        accessTokenRevocations.isRevoked(claims);
+
+        assertThat(SqlStatementRecorder.statementsTouching("token_revocations")).isEmpty();
+    }
+
+    @Test
+    void testPollPicksUpEpochWrittenByAnotherNode() {
+        AccessTokenClaims claims = jwtTokenProvider.verifyAccessToken(bearer.substring(7)).orElseThrow();
+        assertThat(accessTokenRevocations.isRevoked(claims)).isFalse();
+
+        // Written straight to the table, bypassing this node's map
+        tokenRevocationRepository.save(revocation(Instant.now().truncatedTo(ChronoUnit.MILLIS)));
+        assertThat(accessTokenRevocations.isRevoked(claims)).isFalse();
+
+        accessTokenRevocations.pollRevocations();
+
+        assertThat(accessTokenRevocations.isRevoked(claims)).isTrue();
+    }
+
+    private TokenRevocation revocation(Instant epoch) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(user.getId());
+        revocation.setEpoch(epoch);
+        return revocation;
+    }
+}
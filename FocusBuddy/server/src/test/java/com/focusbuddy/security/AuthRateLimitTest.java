@@ -0,0 +1,81 @@
+package com.focusbuddy.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.security.rate-limit.ip.capacity=3",
+        "app.security.rate-limit.email.capacity=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthRateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testIpLimitReturns429WithRetryAfter() throws Exception {
+        String ip = "10.0.0." + (int) (Math.random() * 200 + 1);
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(refresh().with(remoteAddr(ip)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(refresh().with(remoteAddr(ip)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.status").value(429));
+
+        // A different client is unaffected
+        mockMvc.perform(refresh().with(remoteAddr("192.168.0.1")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testEmailLimitAppliesAcrossIps() throws Exception {
+        String email = "target-" + UUID.randomUUID().toString().substring(0, 8) + "@focusbuddy.com";
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(login(email).with(remoteAddr("172.16.0." + i)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(login(email).with(remoteAddr("172.16.1.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static MockHttpServletRequestBuilder refresh() {
+        return post("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"unknown\"}");
+    }
+
+    private static MockHttpServletRequestBuilder login(String email) {
+        return post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"wrong-password\"}");
+    }
+
+    private static RequestPostProcessor remoteAddr(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
+}
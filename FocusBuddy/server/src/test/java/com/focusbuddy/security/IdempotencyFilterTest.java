@@ -0,0 +1,214 @@
+package com.focusbuddy.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.focusbuddy.model.Role;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.SessionFilter;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.repository.TaskRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.TestUsers;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyFilterTest {
+
+    private static final String START_BODY = "{\"task\":\"Retry me\",\"duration\":25,\"sessionType\":\"FOCUS\"}";
+    private static final int PARALLEL_RETRIES = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long userId;
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        User user = newUser();
+        userId = user.getId();
+        bearer = bearerFor(user);
+    }
+
+    @Test
+    void testRetriedStartReplaysOriginalResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        double replayedBefore = outcomeCount("replayed");
+
+        MockHttpServletResponse first = perform(startSession(key, START_BODY));
+        MockHttpServletResponse retry = perform(startSession(key, START_BODY));
+
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(sessionsOfUser()).isEqualTo(1);
+        assertThat(outcomeCount("replayed")).isEqualTo(replayedBefore + 1);
+    }
+
+    @Test
+    void testRetriedTaskCreationDoesNotDuplicate() throws Exception {
+        String key = UUID.randomUUID().toString();
+        MockHttpServletRequestBuilder create = post("/api/v1/tasks")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Only once\"}");
+
+        long firstId = json(perform(create)).get("id").asLong();
+        long retryId = json(perform(create)).get("id").asLong();
+
+        assertThat(retryId).isEqualTo(firstId);
+        assertThat(taskRepository.findByUserIdAndDeletedFalseOrderByCreatedAtDesc(userId)).hasSize(1);
+    }
+
+    @Test
+    void testWithoutKeyEveryRequestExecutes() throws Exception {
+        assertThat(perform(post("/api/sessions/start")
+                .contentType(MediaType.APPLICATION_JSON).content(START_BODY)).getStatus()).isEqualTo(201);
+        assertThat(perform(post("/api/sessions/start")
+                .contentType(MediaType.APPLICATION_JSON).content(START_BODY)).getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        perform(startSession(key, START_BODY));
+
+        MockHttpServletResponse reused = perform(startSession(key,
+                "{\"task\":\"Something else\",\"duration\":50,\"sessionType\":\"FOCUS\"}"));
+
+        assertThat(reused.getStatus()).isEqualTo(422);
+        assertThat(sessionsOfUser()).isEqualTo(1);
+    }
+
+    @Test
+    void testOversizedBodyIsRejected() throws Exception {
+        String task = "x".repeat(70_000);
+
+        MockHttpServletResponse response = perform(startSession(UUID.randomUUID().toString(),
+                "{\"task\":\"" + task + "\",\"duration\":25,\"sessionType\":\"FOCUS\"}"));
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(json(response).get("status").asInt()).isEqualTo(413);
+        assertThat(sessionsOfUser()).isZero();
+    }
+
+    @Test
+    void testKeysAreScopedPerUser() throws Exception {
+        String key = UUID.randomUUID().toString();
+        User other = newUser();
+
+        long mine = json(perform(startSession(key, START_BODY))).get("id").asLong();
+        long theirs = json(mockMvc.perform(startSession(key, START_BODY)
+                .header(HttpHeaders.AUTHORIZATION, bearerFor(other))).andReturn().getResponse()).get("id").asLong();
+
+        assertThat(theirs).isNotEqualTo(mine);
+    }
+
+    @Test
+    void testConcurrentRetriesExecuteOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        ExecutorService pool = Executors.newFixedThreadPool(PARALLEL_RETRIES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < PARALLEL_RETRIES; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return perform(startSession(key, START_BODY));
+                }));
+            }
+            start.countDown();
+
+            List<String> bodies = new ArrayList<>();
+            for (Future<MockHttpServletResponse> result : results) {
+                MockHttpServletResponse response = result.get(30, TimeUnit.SECONDS);
+                assertThat(response.getStatus()).isEqualTo(201);
+                bodies.add(response.getContentAsString());
+            }
+
+            assertThat(bodies).containsOnly(bodies.get(0));
+            assertThat(sessionsOfUser()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private MockHttpServletRequestBuilder startSession(String key, String body) {
+        return post("/api/sessions/start")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer)).andReturn().getResponse();
+    }
+
+    private JsonNode json(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readTree(response.getContentAsString());
+    }
+
+    private int sessionsOfUser() {
+        return sessionRepository.findPage(userId, SessionFilter.none(), null, 10).size();
+    }
+
+    private double outcomeCount(String outcome) {
+        var counter = meterRegistry.find("http.idempotency.requests").tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private User newUser() {
+        return TestUsers.create(userRepository, "retry");
+    }
+
+    private String bearerFor(User user) {
+        return "Bearer " + jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail(), Role.USER);
+    }
+}
@@ -0,0 +1,55 @@
+package com.focusbuddy.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    private static final int BODY_BYTES = 10_000;
+    private static final long MAX_STORED_BYTES = 50_000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotencyStore(meterRegistry);
+        ReflectionTestUtils.setField(store, "maxStoredBytes", MAX_STORED_BYTES);
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofHours(1));
+        store.init();
+    }
+
+    @Test
+    void testStoredResponsesAreBoundedByBytes() throws InterruptedException {
+        for (int i = 0; i < 20; i++) {
+            IdempotencyStore.Key key = new IdempotencyStore.Key(1L, "key-" + i);
+            IdempotencyStore.Claim claim = store.claim(key, "fingerprint");
+            store.complete(key, claim.entry(), new IdempotencyStore.StoredResponse(200, "application/json",
+                    Map.of(), new byte[BODY_BYTES]));
+        }
+
+        // Eviction runs as cache maintenance, not inline with the write
+        long deadline = System.currentTimeMillis() + 5000;
+        while (evictedWeight() < 20 * BODY_BYTES - MAX_STORED_BYTES && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(evictedWeight()).isGreaterThanOrEqualTo(20 * BODY_BYTES - MAX_STORED_BYTES);
+        assertThat(meterRegistry.get("cache.size").tag("cache", "http.idempotency").gauge().value())
+                .isLessThanOrEqualTo(MAX_STORED_BYTES / BODY_BYTES);
+    }
+
+    private double evictedWeight() {
+        FunctionCounter counter = meterRegistry.find("cache.eviction.weight").tag("cache", "http.idempotency")
+                .functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.focusbuddy.security;
+
+import com.focusbuddy.model.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET =
+            "dGhpc2lzYXZlcnlsb25nYW5kc2VjdXJlc2VjcmV0a2V5Zm9yand0dG9rZW5zaWduaW5nZm9jdXNidWRkeWFwcGxpY2F0aW9u";
+    private static final String OTHER_SECRET =
+            "YW5vdGhlcnZlcnlsb25nYW5kc2VjdXJlc2VjcmV0a2V5Zm9yand0dG9rZW5zaWduaW5nZm9jdXNidWRkeWFwcGxpY2F0aW9u";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        provider = newProvider(SECRET, 900_000L, meterRegistry);
+    }
+
+    @Test
+    void testValidThenCachedOutcomes() {
+        String token = provider.generateAccessToken(1L, "user@focusbuddy.com", Role.USER);
+
+        assertTrue(provider.verifyAccessToken(token).isPresent());
+        assertTrue(provider.verifyAccessToken(token).isPresent());
+
+        assertEquals(1.0, outcome("valid"));
+        assertEquals(1.0, outcome("cached"));
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "auth.jwt.verified").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testRejectionReasonsAreCounted() {
+        String expired = newProvider(SECRET, -1_000L, new SimpleMeterRegistry())
+                .generateAccessToken(1L, "user@focusbuddy.com", Role.USER);
+        String foreign = newProvider(OTHER_SECRET, 900_000L, new SimpleMeterRegistry())
+                .generateAccessToken(1L, "user@focusbuddy.com", Role.USER);
+
+        assertTrue(provider.verifyAccessToken(expired).isEmpty());
+        assertTrue(provider.verifyAccessToken(foreign).isEmpty());
+        assertTrue(provider.verifyAccessToken("not.a.jwt").isEmpty());
+
+        assertEquals(1.0, outcome("expired"));
+        assertEquals(1.0, outcome("bad_signature"));
+        assertEquals(1.0, outcome("malformed"));
+        assertEquals(0.0, outcome("valid"));
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("auth.jwt.validation").tag("outcome", outcome).counter().count();
+    }
+
+    private static JwtTokenProvider newProvider(String secret, long accessExpirationMs, SimpleMeterRegistry registry) {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(registry);
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(tokenProvider, "accessExpirationMs", accessExpirationMs);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheSize", 100L);
+        tokenProvider.init();
+        return tokenProvider;
+    }
+}
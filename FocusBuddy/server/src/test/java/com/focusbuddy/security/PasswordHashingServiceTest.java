@@ -0,0 +1,98 @@
+package com.focusbuddy.security;
+
+import com.focusbuddy.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testEncodeAndMatchOnHashingPool() {
+        service = newService(new BCryptPasswordEncoder(4), 2, 4);
+
+        String hash = service.encode("correct horse");
+
+        assertTrue(service.matches("correct horse", hash));
+        assertFalse(service.matches("wrong horse", hash));
+        assertEquals(1, meterRegistry.get("auth.password.hash.duration").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        service = newService(blockingEncoder, 1, 1);
+
+        // One task running, one queued: the pool is saturated
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("second"));
+        waitForQueuedTask();
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> service.encode("third"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testNeedsRehashWhenStrengthIncreases() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+        service = newService(new BCryptPasswordEncoder(5), 1, 1);
+
+        assertTrue(service.needsRehash(weakHash));
+        assertFalse(service.needsRehash(service.encode("secret")));
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private PasswordHashingService newService(PasswordEncoder encoder, int threads, int queueCapacity) {
+        PasswordHashingService hashingService = new PasswordHashingService(encoder, meterRegistry);
+        ReflectionTestUtils.setField(hashingService, "threads", threads);
+        ReflectionTestUtils.setField(hashingService, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(hashingService, "timeoutMs", 5000L);
+        hashingService.init();
+        return hashingService;
+    }
+}
@@ -0,0 +1,120 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ActiveSessionRegistryTest {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepository, "registry").getId();
+    }
+
+    @Test
+    void testRegistryFollowsSessionLifecycle() {
+        Session started = sessionService.startSession(userId, "Deep work", 25, SessionType.FOCUS);
+        SqlStatementRecorder.clear();
+
+        ActiveSession current = sessionService.getActiveSession(userId).orElseThrow();
+        assertThat(current.sessionId()).isEqualTo(started.getId());
+        assertThat(current.status()).isEqualTo(SessionState.STARTED);
+        assertThat(SqlStatementRecorder.statementsTouching("focus_sessions")).isEmpty();
+        assertThrows(IllegalStateException.class,
+                () -> sessionService.startSession(userId, "Second", 25, SessionType.FOCUS));
+        // The entry is checked against its row before rejecting; nothing is inserted
+        assertThat(SqlStatementRecorder.statementsTouching("focus_sessions"))
+                .singleElement()
+                .satisfies(sql -> assertThat(sql).startsWithIgnoringCase("select"));
+
+        sessionService.pauseSession(userId, started.getId());
+        assertThat(sessionService.getActiveSession(userId).orElseThrow().status()).isEqualTo(SessionState.PAUSED);
+
+        sessionService.addDistraction(userId, started.getId(), "Phone");
+        assertThat(sessionService.getActiveSession(userId).orElseThrow().distractions())
+                .extracting(ActiveSession.Distraction::description)
+                .containsExactly("Phone");
+
+        sessionService.endSession(userId, started.getId(), "Done", SessionState.COMPLETED);
+        assertThat(sessionService.getActiveSession(userId)).isEmpty();
+    }
+
+    @Test
+    void testRebuildRestoresActiveSessionsFromDatabase() {
+        Session started = sessionService.startSession(userId, "Survives restart", 25, SessionType.FOCUS);
+        sessionService.addDistraction(userId, started.getId(), "Slack");
+
+        activeSessionRegistry.rebuild();
+
+        ActiveSession restored = activeSessionRegistry.find(userId).orElseThrow();
+        assertThat(restored.sessionId()).isEqualTo(started.getId());
+        assertThat(restored.distractions()).hasSize(1);
+
+        sessionService.endSession(userId, started.getId(), null, SessionState.ABORTED);
+    }
+
+    @Test
+    void testRebuildKeepsEntriesCommittedSinceItsQuery() {
+        Session started = sessionService.startSession(userId, "Loaded", 25, SessionType.FOCUS);
+        // As if a newer session's start committed after the rebuild read the table
+        Session newer = sessionService.getSession(userId, started.getId());
+        newer.setId(started.getId() + 1_000_000);
+        activeSessionRegistry.put(newer);
+
+        activeSessionRegistry.rebuild();
+
+        assertThat(activeSessionRegistry.find(userId).orElseThrow().sessionId()).isEqualTo(newer.getId());
+
+        activeSessionRegistry.remove(userId, newer.getId());
+        sessionService.endSession(userId, started.getId(), null, SessionState.ABORTED);
+    }
+
+    @Test
+    void testEntryForSessionEndedElsewhereDoesNotBlockStart() {
+        Session ended = sessionService.startSession(userId, "Ended on another node", 25, SessionType.FOCUS);
+        sessionService.endSession(userId, ended.getId(), "Done", SessionState.COMPLETED);
+        // As if the end ran on another node, leaving this node's entry behind
+        ended.setStatus(SessionState.STARTED);
+        activeSessionRegistry.put(ended);
+
+        Session started = sessionService.startSession(userId, "Next", 25, SessionType.FOCUS);
+
+        assertThat(sessionService.getActiveSession(userId).orElseThrow().sessionId()).isEqualTo(started.getId());
+        sessionService.endSession(userId, started.getId(), null, SessionState.ABORTED);
+    }
+
+    @Test
+    void testTransitionEvictsEntryForSessionEndedElsewhere() {
+        Session ended = sessionService.startSession(userId, "Ended on another node", 25, SessionType.FOCUS);
+        sessionService.endSession(userId, ended.getId(), "Done", SessionState.COMPLETED);
+        ended.setStatus(SessionState.STARTED);
+        activeSessionRegistry.put(ended);
+
+        assertThrows(IllegalStateException.class, () -> sessionService.pauseSession(userId, ended.getId()));
+        assertThat(sessionService.getActiveSession(userId)).isEmpty();
+    }
+}
@@ -0,0 +1,119 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.dto.ProductivityStats;
+import com.focusbuddy.dto.StatsRange;
+import com.focusbuddy.dto.request.CreateTaskRequest;
+import com.focusbuddy.dto.request.UpdateTaskRequest;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.Task;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.TestUsers;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsResultCacheTest {
+
+    @Autowired
+    private ProductivityService productivityService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = TestUsers.create(userRepository, "cache");
+    }
+
+    @Test
+    void testRepeatedStatsAreServedWithoutQueries() {
+        double hitsBefore = cacheGets("hit");
+        productivityService.getStats(user.getId(), StatsRange.WEEKLY);
+        statistics.clear();
+
+        ProductivityStats again = productivityService.getStats(user.getId(), StatsRange.WEEKLY);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(again.totalSessions()).isZero();
+        assertThat(cacheGets("hit")).isEqualTo(hitsBefore + 1);
+        assertThat(meterRegistry.find("analytics.results.hit.ratio").gauge()).isNotNull();
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "analytics.results").functionCounter())
+                .isNotNull();
+    }
+
+    @Test
+    void testSessionEventsInvalidateTheUsersResults() {
+        assertThat(productivityService.getStats(user.getId(), StatsRange.DAILY).totalSessions()).isZero();
+
+        Session session = sessionService.startSession(user.getId(), "Deep work", 25, SessionType.FOCUS);
+        assertThat(productivityService.getStats(user.getId(), StatsRange.DAILY).totalSessions()).isEqualTo(1);
+
+        sessionService.endSession(user.getId(), session.getId(), null, SessionState.COMPLETED);
+        ProductivityStats stats = productivityService.getStats(user.getId(), StatsRange.DAILY);
+        assertThat(stats.completedSessions()).isEqualTo(1);
+        assertThat(stats.currentStreak()).isEqualTo(1);
+    }
+
+    @Test
+    void testCompletingATaskInvalidatesStats() {
+        Task task = taskService.createTask(user.getId(), new CreateTaskRequest("Ship it", null, null, null));
+        assertThat(productivityService.getStats(user.getId(), StatsRange.DAILY).completedTasks()).isZero();
+
+        taskService.updateTask(user.getId(), task.getId(),
+                new UpdateTaskRequest(null, null, null, Task.TaskStatus.COMPLETED, null));
+
+        assertThat(productivityService.getStats(user.getId(), StatsRange.DAILY).completedTasks()).isEqualTo(1);
+    }
+
+    @Test
+    void testSummariesAreRecomputedWhileASessionRuns() {
+        LocalDate today = LocalDate.now();
+        sessionService.startSession(user.getId(), "Deep work", 25, SessionType.FOCUS);
+        analyticsService.getDailySummary(user.getId(), today);
+        statistics.clear();
+
+        analyticsService.getDailySummary(user.getId(), today);
+
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+    }
+
+    private double cacheGets(String result) {
+        var counter = meterRegistry.find("cache.gets").tag("cache", "analytics.results").tag("result", result)
+                .functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+}
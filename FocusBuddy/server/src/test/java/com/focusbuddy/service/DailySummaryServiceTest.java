@@ -0,0 +1,136 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.dto.DailySummary;
+import com.focusbuddy.dto.response.DailySummaryResponseDTO;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DailySummaryServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 3);
+
+    @Autowired
+    private DailySummaryService dailySummaryService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, "summary");
+    }
+
+    @Test
+    void testAllTypesFromOneGroupedQuery() {
+        ended(SessionType.FOCUS, DAY.atTime(8, 0), 1500, SessionState.COMPLETED);
+        ended(SessionType.FOCUS, DAY.atTime(9, 0), 600, SessionState.ABORTED);
+        ended(SessionType.BREAK, DAY.atTime(9, 30), 300, SessionState.COMPLETED);
+        ended(SessionType.MEETING, DAY.atTime(23, 59), 1800, SessionState.COMPLETED);
+        // Outside the day
+        ended(SessionType.FOCUS, DAY.minusDays(1).atTime(23, 0), 3000, SessionState.COMPLETED);
+        ended(SessionType.FOCUS, DAY.plusDays(1).atStartOfDay(), 3000, SessionState.COMPLETED);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        DailySummary summary = dailySummaryService.summarize(user.getId(), DAY);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(summary.secondsByType()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                SessionType.FOCUS, 2100L,
+                SessionType.BREAK, 300L,
+                SessionType.MEETING, 1800L,
+                SessionType.OTHER, 0L));
+        assertThat(summary.sessionsOf(SessionType.FOCUS)).isEqualTo(2);
+        assertThat(summary.totalSessions()).isEqualTo(4);
+        assertThat(summary.totalSeconds()).isEqualTo(4200);
+    }
+
+    @Test
+    void testActiveSessionCountsElapsedTimeLessPauses() {
+        LocalDateTime now = LocalDateTime.now();
+        Session session = new Session();
+        session.setUser(user);
+        session.setTaskDescription("Running");
+        session.setPlannedDuration(60);
+        session.setStartedAt(now.minusMinutes(10));
+        session.setSessionDate(now.toLocalDate());
+        session.setStatus(SessionState.PAUSED);
+        session.setTotalPausedSeconds(60);
+        session.setPausedAt(now.minusMinutes(2));
+        sessionRepository.save(session);
+
+        DailySummary summary = dailySummaryService.summarize(user.getId(), now.toLocalDate());
+
+        // 10 minutes elapsed, 1 minute of earlier pauses, 2 minutes into the current pause
+        assertThat(summary.secondsOf(SessionType.FOCUS)).isCloseTo(420L, within(2L));
+        assertThat(summary.sessionsOf(SessionType.FOCUS)).isEqualTo(1);
+    }
+
+    @Test
+    void testBothSummaryEndpointsAgree() {
+        ended(SessionType.FOCUS, DAY.atTime(8, 0), 3600, SessionState.COMPLETED);
+        ended(SessionType.BREAK, DAY.atTime(9, 0), 900, SessionState.COMPLETED);
+
+        DailySummaryResponseDTO analytics = analyticsService.getDailySummary(user.getId(), DAY);
+        Map<String, Object> sessions = sessionService.getDailySummary(user.getId(), DAY);
+
+        assertThat(analytics.focusSeconds()).isEqualTo(3600);
+        assertThat(analytics.breakSeconds()).isEqualTo(900);
+        assertThat(sessions.get("totalFocusMinutes")).isEqualTo(60);
+        assertThat(sessions.get("totalBreakMinutes")).isEqualTo(15);
+        assertThat(sessions.get("productivityScore")).isEqualTo(80);
+        assertThat((List<?>) sessions.get("sessions")).hasSize(2);
+    }
+
+    private void ended(SessionType type, LocalDateTime startedAt, int seconds, SessionState status) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setTaskDescription(type + " at " + startedAt);
+        session.setPlannedDuration(seconds / 60);
+        session.setStartedAt(startedAt);
+        session.setEndedAt(startedAt.plusSeconds(seconds));
+        session.setActualDuration(seconds);
+        session.setSessionDate(startedAt.toLocalDate());
+        session.setStatus(status);
+        session.setSessionType(type);
+        sessionRepository.save(session);
+    }
+}
@@ -0,0 +1,151 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.DistractionLog;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.repository.DistractionLogRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Write-behind buffering for distraction logs. The interval is long enough
+ * that only explicit triggers (session end, max-items) write rows here.
+ */
+@SpringBootTest(properties = {
+        "app.sessions.distraction-buffer.enabled=true",
+        "app.sessions.distraction-buffer.flush-interval=PT1H",
+        "app.sessions.distraction-buffer.max-items=10"
+})
+@ActiveProfiles("test")
+class DistractionLogBufferTest {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private DistractionLogBuffer distractionLogBuffer;
+
+    @Autowired
+    private DistractionLogRepository distractionLogRepository;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+    private Long sessionId;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepository, "buffer").getId();
+        sessionId = sessionService.startSession(userId, "Buffered", 25, SessionType.FOCUS).getId();
+    }
+
+    @Test
+    void testBufferedDistractionsAreWrittenWhenSessionEnds() {
+        List<DistractionLog> accepted = sessionService.addDistractions(userId, sessionId, List.of("Phone", "Email"));
+
+        assertThat(accepted).hasSize(2).allMatch(log -> log.getId() == null);
+        assertThat(distractionLogRepository.findBySessionId(sessionId)).isEmpty();
+        assertThat(sessionService.getActiveSession(userId).orElseThrow().distractions()).hasSize(2);
+
+        sessionService.endSession(userId, sessionId, "Done", SessionState.COMPLETED);
+
+        assertThat(distractionLogRepository.findBySessionId(sessionId))
+                .extracting(DistractionLog::getDescription)
+                .containsExactlyInAnyOrder("Phone", "Email");
+    }
+
+    @Test
+    void testEndWritesOnlyThatSessionsRows() {
+        Long otherUserId = TestUsers.create(userRepository, "buffer_o").getId();
+        Long otherSessionId = sessionService.startSession(otherUserId, "Other", 25, SessionType.FOCUS).getId();
+
+        sessionService.addDistractions(userId, sessionId, List.of("Phone"));
+        sessionService.addDistractions(otherUserId, otherSessionId, List.of("Email"));
+
+        sessionService.pauseSession(userId, sessionId);
+        sessionService.resumeSession(userId, sessionId);
+        assertThat(distractionLogRepository.findBySessionId(sessionId)).isEmpty();
+
+        sessionService.endSession(userId, sessionId, "Done", SessionState.COMPLETED);
+
+        assertThat(distractionLogRepository.findBySessionId(sessionId))
+                .extracting(DistractionLog::getDescription)
+                .containsExactly("Phone");
+        assertThat(distractionLogRepository.findBySessionId(otherSessionId)).isEmpty();
+        assertThat(distractionLogBuffer.flush()).isEqualTo(1);
+    }
+
+    @Test
+    void testReachingMaxItemsTriggersFlush() throws InterruptedException {
+        List<String> descriptions = IntStream.range(0, 10).mapToObj(i -> "Tap " + i).toList();
+
+        sessionService.addDistractions(userId, sessionId, descriptions);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (distractionLogRepository.findBySessionId(sessionId).size() < 10
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(distractionLogRepository.findBySessionId(sessionId)).hasSize(10);
+        assertThat(distractionLogBuffer.flush()).isZero();
+    }
+
+    @Test
+    void testFailedBatchOnlyDropsRowsThatFailOnTheirOwn() {
+        LocalDateTime now = LocalDateTime.now();
+        distractionLogBuffer.add(List.of(
+                new DistractionLogBuffer.PendingDistraction(sessionId, "Phone", now),
+                new DistractionLogBuffer.PendingDistraction(Long.MAX_VALUE, "Orphan", now),
+                new DistractionLogBuffer.PendingDistraction(sessionId, "Email", now)));
+
+        assertThat(distractionLogBuffer.flush()).isEqualTo(2);
+        assertThat(distractionLogRepository.findBySessionId(sessionId))
+                .extracting(DistractionLog::getDescription)
+                .containsExactlyInAnyOrder("Phone", "Email");
+    }
+
+    @Test
+    void testRolledBackBatchIsNeverQueued() {
+        transactionTemplate.executeWithoutResult(status -> {
+            sessionService.addDistractions(userId, sessionId, List.of("Phone"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(distractionLogBuffer.flush()).isZero();
+        assertThat(distractionLogRepository.findBySessionId(sessionId)).isEmpty();
+    }
+
+    @Test
+    void testBatchForEndedSessionIsRejectedEvenIfRegistryLags() {
+        Session ended = sessionService.endSession(userId, sessionId, "Done", SessionState.COMPLETED);
+        // As if the end committed but its registry update has not run yet
+        ended.setStatus(SessionState.STARTED);
+        activeSessionRegistry.put(ended);
+
+        assertThatThrownBy(() -> sessionService.addDistractions(userId, sessionId, List.of("Late")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(distractionLogBuffer.flush()).isZero();
+        assertThat(distractionLogRepository.findBySessionId(sessionId)).isEmpty();
+    }
+}
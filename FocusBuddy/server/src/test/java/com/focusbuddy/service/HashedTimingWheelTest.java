@@ -0,0 +1,73 @@
+package com.focusbuddy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(Duration.ofMillis(100), 8, START);
+
+    @Test
+    void testExpiresOnlyOnceTheDeadlineTickHasElapsed() {
+        wheel.schedule("a", START + 250);
+
+        assertThat(wheel.advance(START + 250)).isEmpty();
+        assertThat(wheel.advance(START + 299)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(START + 1000)).isEmpty();
+    }
+
+    @Test
+    void testRescheduleReplacesEarlierDeadline() {
+        wheel.schedule("a", START + 150);
+        wheel.schedule("a", START + 450);
+
+        assertThat(wheel.advance(START + 399)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(START + 499)).containsExactly("a");
+    }
+
+    @Test
+    void testCancelledKeyNeverExpires() {
+        wheel.schedule("a", START + 150);
+        wheel.schedule("b", START + 150);
+        wheel.cancel("a");
+
+        assertThat(wheel.advance(START + 1000)).containsExactly("b");
+    }
+
+    @Test
+    void testDeadlineSeveralRotationsOutWaitsForItsRound() {
+        // 8 buckets of 100ms: one rotation is 800ms
+        wheel.schedule("far", START + 2_050);
+
+        assertThat(wheel.advance(START + 799)).isEmpty();
+        assertThat(wheel.advance(START + 1_599)).isEmpty();
+        assertThat(wheel.advance(START + 2_050)).isEmpty();
+        assertThat(wheel.advance(START + 2_099)).containsExactly("far");
+    }
+
+    @Test
+    void testLongGapExpiresEverythingDueAndKeepsTheRest() {
+        wheel.schedule("a", START + 100);
+        wheel.schedule("b", START + 3_000);
+        wheel.schedule("c", START + 10_000);
+
+        assertThat(wheel.advance(START + 5_000)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.advance(START + 9_999)).isEmpty();
+        assertThat(wheel.advance(START + 10_099)).containsExactly("c");
+    }
+
+    @Test
+    void testOverdueDeadlineExpiresOnNextTick() {
+        wheel.advance(START + 999);
+        wheel.schedule("late", START + 100);
+
+        assertThat(wheel.advance(START + 1_099)).containsExactly("late");
+    }
+}
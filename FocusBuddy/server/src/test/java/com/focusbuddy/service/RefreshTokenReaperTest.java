@@ -0,0 +1,89 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.RefreshToken;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.RefreshTokenRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.TestUsers;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenReaperTest {
+
+    @Autowired
+    private RefreshTokenReaper reaper;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, "reaper");
+        now = LocalDateTime.now();
+
+        // Small chunks so a single run has to loop
+        ReflectionTestUtils.setField(reaper, "chunkSize", 2);
+    }
+
+    @Test
+    void testPurgesExpiredAndOldRevokedTokensInChunks() {
+        RefreshToken active = token(now.plusDays(1), null);
+        RefreshToken recentlyRevoked = token(now.plusDays(1), now.minusHours(1));
+        RefreshToken revokedAndExpired = token(now.minusDays(1), now.minusDays(2));
+        for (int i = 0; i < 5; i++) {
+            token(now.minusMinutes(i + 1), null);
+        }
+        token(now.plusDays(1), now.minusDays(30));
+        double purgedBefore = meterRegistry.get("auth.refresh.reaper.purged").counter().count();
+
+        int purged = reaper.purge(now);
+
+        assertThat(purged).isGreaterThanOrEqualTo(6);
+        assertThat(refreshTokenRepository.findAll())
+                .filteredOn(t -> t.getUser().getId().equals(user.getId()))
+                .extracting(RefreshToken::getId)
+                .containsExactlyInAnyOrder(active.getId(), recentlyRevoked.getId(), revokedAndExpired.getId());
+        assertThat(meterRegistry.get("auth.refresh.reaper.purged").counter().count())
+                .isEqualTo(purgedBefore + purged);
+        assertThat(meterRegistry.get("auth.refresh.reaper.duration").timer().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testNothingToPurge() {
+        token(now.plusDays(1), null);
+
+        reaper.purge(now);
+
+        assertThat(reaper.purge(now)).isZero();
+    }
+
+    private RefreshToken token(LocalDateTime expiresAt, LocalDateTime revokedAt) {
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(UUID.randomUUID().toString());
+        token.setExpiresAt(expiresAt);
+        token.setRevokedAt(revokedAt);
+        return refreshTokenRepository.save(token);
+    }
+}
@@ -0,0 +1,116 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.dto.TokenResponse;
+import com.focusbuddy.exception.UnauthorizedException;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.RefreshTokenRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenRotationTest {
+
+    private static final int PARALLEL_REFRESHES = 8;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private String rawToken;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, "rotate");
+
+        rawToken = refreshTokenService.createRefreshToken(user, "test-device").rawToken();
+    }
+
+    @Test
+    void testRotationIsConditionalUpdateAndInsert() {
+        // Warm the users cache region, as the login that issued the token would
+        userRepository.findById(user.getId());
+        SqlStatementRecorder.clear();
+
+        TokenResponse response = authService.refresh(rawToken, "test-device");
+
+        assertThat(response.refreshToken()).isNotEqualTo(rawToken);
+        List<String> statements = SqlStatementRecorder.statementsTouching("refresh_tokens");
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).containsIgnoringCase("update refresh_tokens");
+        assertThat(statements.get(1)).startsWith("insert");
+        assertThat(SqlStatementRecorder.statementsTouching("app_users")).isEmpty();
+    }
+
+    @Test
+    void testReusedTokenRevokesAllUserTokens() {
+        TokenResponse rotated = authService.refresh(rawToken, "test-device");
+
+        assertThrows(UnauthorizedException.class, () -> authService.refresh(rawToken, "test-device"));
+
+        // The replacement token was revoked by reuse detection
+        assertThat(refreshTokenRepository.findByUserAndRevokedAtIsNull(user)).isEmpty();
+        assertThrows(UnauthorizedException.class, () -> authService.refresh(rotated.refreshToken(), "test-device"));
+    }
+
+    @Test
+    void testUnknownTokenIsRejected() {
+        assertThrows(UnauthorizedException.class, () -> authService.refresh("not-a-token", "test-device"));
+    }
+
+    @Test
+    void testParallelRefreshesWithSameTokenHaveExactlyOneWinner() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PARALLEL_REFRESHES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TokenResponse>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < PARALLEL_REFRESHES; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return authService.refresh(rawToken, "parallel-device");
+                }));
+            }
+            start.countDown();
+
+            int successes = 0;
+            int rejections = 0;
+            for (Future<TokenResponse> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    successes++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(UnauthorizedException.class);
+                    rejections++;
+                }
+            }
+
+            assertThat(successes).isEqualTo(1);
+            assertThat(rejections).isEqualTo(PARALLEL_REFRESHES - 1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Auto-ending of overdue sessions. Scheduling is off in tests, so each test
+ * drives the wheel through {@link SessionDeadlineScheduler#expireDue(long)}
+ * with a clock of its own.
+ */
+@SpringBootTest(properties = {
+        "app.sessions.auto-end.grace=PT5M",
+        "app.sessions.auto-end.max-pause=PT1H"
+})
+@ActiveProfiles("test")
+class SessionDeadlineSchedulerTest {
+
+    @Autowired
+    private SessionDeadlineScheduler scheduler;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        // A fresh wheel, so earlier tests' clocks do not carry over
+        scheduler.init();
+
+        userId = TestUsers.create(userRepository, "overdue").getId();
+    }
+
+    @Test
+    void testRunningSessionCompletesAtPlannedEnd() {
+        Long sessionId = sessionService.startSession(userId, "Forgotten", 25, SessionType.FOCUS).getId();
+        LocalDateTime startedAt = sessionRepository.findById(sessionId).orElseThrow().getStartedAt();
+        long deadline = toMillis(startedAt.plusMinutes(30));
+
+        assertThat(scheduler.expireDue(deadline - 2000)).isZero();
+        assertThat(sessionService.getActiveSession(userId)).isPresent();
+
+        assertThat(scheduler.expireDue(deadline + 2000)).isEqualTo(1);
+
+        Session session = sessionRepository.findById(sessionId).orElseThrow();
+        assertThat(session.getStatus()).isEqualTo(SessionState.COMPLETED);
+        assertThat(session.getEndedAt()).isCloseTo(startedAt.plusMinutes(25), within(1, ChronoUnit.MILLIS));
+        assertThat(session.getActualDuration()).isEqualTo(25 * 60);
+        assertThat(sessionService.getActiveSession(userId)).isEmpty();
+    }
+
+    @Test
+    void testPausedSessionAbortsAfterMaxPause() {
+        Long sessionId = sessionService.startSession(userId, "Walked away", 25, SessionType.FOCUS).getId();
+        sessionService.pauseSession(userId, sessionId);
+        LocalDateTime pausedAt = sessionRepository.findById(sessionId).orElseThrow().getPausedAt();
+
+        // The running deadline no longer applies once paused
+        assertThat(scheduler.expireDue(toMillis(pausedAt.plusMinutes(59)))).isZero();
+
+        assertThat(scheduler.expireDue(toMillis(pausedAt.plusMinutes(61)))).isEqualTo(1);
+
+        Session session = sessionRepository.findById(sessionId).orElseThrow();
+        assertThat(session.getStatus()).isEqualTo(SessionState.ABORTED);
+        assertThat(session.getEndedAt()).isCloseTo(pausedAt, within(1, ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void testEndedSessionIsNotTouched() {
+        Long sessionId = sessionService.startSession(userId, "Finished", 25, SessionType.FOCUS).getId();
+        sessionService.endSession(userId, sessionId, "Done", SessionState.COMPLETED);
+        Session ended = sessionRepository.findById(sessionId).orElseThrow();
+
+        assertThat(scheduler.expireDue(toMillis(ended.getStartedAt().plusHours(2)))).isZero();
+
+        assertThat(sessionRepository.findById(sessionId).orElseThrow().getEndedAt())
+                .isEqualTo(ended.getEndedAt());
+    }
+
+    @Test
+    void testDeadlineWithoutRegistryEntryIsCheckedAgainstRow() {
+        Long sessionId = sessionService.startSession(userId, "Not loaded yet", 25, SessionType.FOCUS).getId();
+        LocalDateTime startedAt = sessionRepository.findById(sessionId).orElseThrow().getStartedAt();
+        // As if the tick ran before the registry was rebuilt
+        activeSessionRegistry.evict(userId, sessionId);
+
+        assertThat(scheduler.expireDue(toMillis(startedAt.plusMinutes(31)))).isEqualTo(1);
+
+        assertThat(sessionRepository.findById(sessionId).orElseThrow().getStatus())
+                .isEqualTo(SessionState.COMPLETED);
+    }
+
+    @Test
+    void testDeadlinesAreRebuiltFromDatabase() {
+        Long sessionId = sessionService.startSession(userId, "Before restart", 25, SessionType.FOCUS).getId();
+        LocalDateTime startedAt = sessionRepository.findById(sessionId).orElseThrow().getStartedAt();
+        scheduler.init();
+
+        scheduler.rehydrate();
+
+        assertThat(scheduler.expireDue(toMillis(startedAt.plusMinutes(31)))).isGreaterThanOrEqualTo(1);
+        assertThat(sessionRepository.findById(sessionId).orElseThrow().getStatus())
+                .isEqualTo(SessionState.COMPLETED);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,9 +1,12 @@
 package com.focusbuddy.service;
 
+import com.focusbuddy.dto.DailySummary;
+import com.focusbuddy.mapper.SessionMapper;
 import com.focusbuddy.model.Session;
 import com.focusbuddy.model.SessionState;
 import com.focusbuddy.model.SessionType;
 import com.focusbuddy.model.User;
+import com.focusbuddy.repository.DistractionLogRepository;
 import com.focusbuddy.repository.SessionRepository;
 import com.focusbuddy.repository.UserRepository;
 import org.junit.jupiter.api.Test;
@@ -11,17 +14,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,32 +46,79 @@ public class SessionServiceTest {
     @Mock
     private StreakService streakService;
 
+    @Mock
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Mock
+    private DistractionLogRepository distractionLogRepository;
+
+    @Mock
+    private DistractionLogBuffer distractionLogBuffer;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DailySummaryService dailySummaryService;
+
+    @Mock
+    private UserDailyStatsService userDailyStatsService;
+
+    @Mock
+    private SessionMapper sessionMapper;
+
+    @Mock
+    private AnalyticsResultCache analyticsResultCache;
+
     @InjectMocks
     private SessionService sessionService;
 
     @Test
-    void testEndSessionCalculatesDuration() {
+    void testEndSessionIsOneUpdateFromCurrentSnapshot() {
+        Long userId = 1L;
+        Long sessionId = 100L;
+        ActiveSession active = new ActiveSession(sessionId, userId, SessionState.STARTED, "Write tests",
+                SessionType.FOCUS, 25, LocalDateTime.now().minusMinutes(25), null, 0, 3L, List.of());
+
+        when(activeSessionRegistry.find(userId)).thenReturn(Optional.of(active));
+        when(sessionRepository.end(eq(sessionId), eq(userId), eq(3L), eq(SessionState.COMPLETED), eq("Good job"),
+                eq(0), anyInt(), any(LocalDateTime.class))).thenReturn(1);
+
+        Session endedSession = sessionService.endSession(userId, sessionId, "Good job", SessionState.COMPLETED);
+
+        assertEquals(SessionState.COMPLETED, endedSession.getStatus());
+        assertEquals("Good job", endedSession.getReflection());
+        assertEquals(1500, endedSession.getActualDuration(), 5);
+        assertEquals(4L, endedSession.getVersion());
+        verify(sessionRepository).end(sessionId, userId, 3L, SessionState.COMPLETED, "Good job", 0,
+                endedSession.getActualDuration(), endedSession.getEndedAt());
+        verify(sessionRepository, never()).findWithDistractionLogsById(any());
+        verify(distractionLogRepository).findBySessionId(sessionId);
+        verify(activeSessionRegistry).remove(userId, sessionId);
+        verify(streakService).updateStreak(userId);
+        verify(userDailyStatsService).recordEnded(userId, endedSession);
+    }
+
+    @Test
+    void testEndSessionInWrongStateIsRejected() {
         Long userId = 1L;
         Long sessionId = 100L;
         User user = new User();
         user.setId(userId);
-
         Session session = new Session();
         session.setId(sessionId);
         session.setUser(user);
-        session.setStatus(SessionState.STARTED);
-        session.setStartedAt(LocalDateTime.now().minusMinutes(25));
+        session.setStatus(SessionState.COMPLETED);
+        session.setVersion(2L);
 
+        when(sessionRepository.findWithDistractionLogsById(sessionId)).thenReturn(Optional.of(session));
         when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
-        when(sessionRepository.save(any(Session.class))).thenAnswer(i -> i.getArguments()[0]);
 
-        Session endedSession = sessionService.endSession(userId, sessionId, "Good job", SessionState.COMPLETED);
-
-        assertEquals(SessionState.COMPLETED, endedSession.getStatus());
-        assertNotNull(endedSession.getEndedAt());
-        // Duration should be around 25*60 = 1500 seconds
-        // Allow some delta
-        assertEquals(1500, endedSession.getActualDuration(), 5);
+        assertThrows(IllegalStateException.class,
+                () -> sessionService.endSession(userId, sessionId, null, SessionState.COMPLETED));
+        verify(sessionRepository, never()).end(any(), any(), any(), any(), any(), anyInt(), anyInt(), any());
+        verify(streakService, never()).updateStreak(userId);
+        verify(userDailyStatsService, never()).recordEnded(any(), any());
     }
 
     @Test
@@ -69,12 +126,19 @@ public class SessionServiceTest {
         Long userId = 1L;
         LocalDate today = LocalDate.now();
 
-        when(sessionRepository.sumActualDurationByUserIdAndDateAndType(userId, today, SessionType.FOCUS))
-                .thenReturn(3600); // 60 mins
-        when(sessionRepository.sumActualDurationByUserIdAndDateAndType(userId, today, SessionType.BREAK))
-                .thenReturn(900); // 15 mins
-        when(sessionRepository.findAllByUserIdAndSessionDate(userId, today))
+        Map<SessionType, Long> seconds = new EnumMap<>(SessionType.class);
+        Map<SessionType, Long> sessions = new EnumMap<>(SessionType.class);
+        for (SessionType type : SessionType.values()) {
+            seconds.put(type, 0L);
+            sessions.put(type, 0L);
+        }
+        seconds.put(SessionType.FOCUS, 3600L); // 60 mins
+        seconds.put(SessionType.BREAK, 900L); // 15 mins
+        when(dailySummaryService.summarize(userId, today)).thenReturn(new DailySummary(today, seconds, sessions));
+        when(sessionRepository.findStartedBetween(userId, today.atStartOfDay(), today.plusDays(1).atStartOfDay()))
                 .thenReturn(Collections.emptyList());
+        when(analyticsResultCache.getUnlessRunning(eq(userId), any(), eq(today), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
 
         Map<String, Object> summary = sessionService.getDailySummary(userId, today);
 
@@ -0,0 +1,173 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.DistractionLog;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.UserDailyStats;
+import com.focusbuddy.repository.DistractionLogRepository;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.repository.UserDailyStatsRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.SqlStatementRecorder;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionTransitionTest {
+
+    private static final int PARALLEL_ENDS = 6;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DistractionLogRepository distractionLogRepository;
+
+    @Autowired
+    private UserDailyStatsRepository userDailyStatsRepository;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+    private Long sessionId;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepository, "trans").getId();
+        sessionId = sessionService.startSession(userId, "Guarded", 25, SessionType.FOCUS).getId();
+    }
+
+    @Test
+    void testEachTransitionIsOneUpdate() {
+        SqlStatementRecorder.clear();
+
+        sessionService.pauseSession(userId, sessionId);
+        sessionService.resumeSession(userId, sessionId);
+
+        List<String> statements = SqlStatementRecorder.statementsTouching("focus_sessions");
+        assertThat(statements).hasSize(2).allMatch(sql -> sql.startsWith("update"));
+        Session stored = sessionRepository.findById(sessionId).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(SessionState.RESUMED);
+        assertThat(stored.getPausedAt()).isNull();
+        assertThat(stored.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void testTransitionIsBuiltFromRowNotStaleRegistry() {
+        Session paused = sessionService.pauseSession(userId, sessionId);
+        // As if the pause committed but its registry update has not run yet
+        Session stale = sessionRepository.findWithDistractionLogsById(sessionId).orElseThrow();
+        stale.setStatus(SessionState.STARTED);
+        stale.setPausedAt(null);
+        stale.setVersion(0L);
+        activeSessionRegistry.remove(userId, sessionId);
+        activeSessionRegistry.put(stale);
+
+        Session resumed = sessionService.resumeSession(userId, sessionId);
+
+        Session stored = sessionRepository.findById(sessionId).orElseThrow();
+        assertThat(resumed.getStatus()).isEqualTo(SessionState.RESUMED);
+        assertThat(resumed.getResumedAt()).isEqualTo(stored.getResumedAt()).isAfterOrEqualTo(paused.getPausedAt());
+        assertThat(resumed.getTotalPausedSeconds()).isEqualTo(stored.getTotalPausedSeconds());
+        assertThat(resumed.getVersion()).isEqualTo(2L);
+        ActiveSession active = activeSessionRegistry.find(userId).orElseThrow();
+        assertThat(active.status()).isEqualTo(SessionState.RESUMED);
+        assertThat(active.version()).isEqualTo(2L);
+    }
+
+    @Test
+    void testEndFallsBackToRowWhenSnapshotVersionIsBehind() {
+        // Started 30 minutes ago, paused for the last 10
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = sessionRepository.findById(sessionId).orElseThrow();
+            session.setStartedAt(LocalDateTime.now().minusMinutes(30));
+            session.setStatus(SessionState.PAUSED);
+            session.setPausedAt(LocalDateTime.now().minusMinutes(10));
+        });
+        // The row was edited behind the service's back, so the registry snapshot is a version behind
+
+        Session ended = sessionService.endSession(userId, sessionId, "Done", SessionState.COMPLETED);
+
+        Session stored = sessionRepository.findById(sessionId).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(SessionState.COMPLETED);
+        assertThat(stored.getReflection()).isEqualTo("Done");
+        assertThat(stored.getTotalPausedSeconds()).isBetween(599, 601);
+        assertThat(stored.getActualDuration()).isBetween(1199, 1201);
+        assertThat(ended.getActualDuration()).isEqualTo(stored.getActualDuration());
+    }
+
+    @Test
+    void testEndCountsDistractionsTheRegistryHasNotSeen() {
+        // As if the distraction committed but its registry update has not run yet
+        DistractionLog log = new DistractionLog();
+        log.setSession(sessionRepository.getReferenceById(sessionId));
+        log.setDescription("Phone");
+        log.setLoggedAt(LocalDateTime.now());
+        distractionLogRepository.save(log);
+        assertThat(activeSessionRegistry.find(userId).orElseThrow().distractions()).isEmpty();
+
+        Session ended = sessionService.endSession(userId, sessionId, "Done", SessionState.COMPLETED);
+
+        assertThat(ended.getDistractionLogs()).extracting(DistractionLog::getDescription).containsExactly("Phone");
+        UserDailyStats day = userDailyStatsRepository
+                .findFirstByUserIdAndStatDateLessThanEqualOrderByStatDateDesc(userId, LocalDate.now())
+                .orElseThrow();
+        assertThat(day.getDistractionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrentEndsHaveExactlyOneWinner() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PARALLEL_ENDS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Session>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < PARALLEL_ENDS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return sessionService.endSession(userId, sessionId, "Race", SessionState.COMPLETED);
+                }));
+            }
+            start.countDown();
+
+            int successes = 0;
+            for (Future<Session> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    successes++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                }
+            }
+            assertThat(successes).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(sessionRepository.findById(sessionId).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+}
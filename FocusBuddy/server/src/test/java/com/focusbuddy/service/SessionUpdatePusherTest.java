@@ -0,0 +1,190 @@
+package com.focusbuddy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.focusbuddy.dto.response.SessionUpdateMessage;
+import com.focusbuddy.model.Role;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.security.JwtTokenProvider;
+import com.focusbuddy.support.TestUsers;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.websocket.coalesce-window=PT0.3S")
+@ActiveProfiles("test")
+class SessionUpdatePusherTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SimpUserRegistry simpUserRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SimpleBrokerMessageHandler simpleBrokerMessageHandler;
+
+    @Autowired
+    @Qualifier("messageBrokerTaskScheduler")
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    private WebSocketStompClient stompClient;
+    private final List<StompSession> sessions = new ArrayList<>();
+    private Long userId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User user = TestUsers.create(userRepository, "push");
+        userId = user.getId();
+        token = jwtTokenProvider.generateAccessToken(userId, user.getEmail(), Role.USER);
+
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient.setMessageConverter(converter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(StompSession::disconnect);
+        stompClient.stop();
+    }
+
+    @Test
+    void testEveryDeviceReceivesCoalescedUpdate() throws Exception {
+        BlockingQueue<SessionUpdateMessage> phone = subscribe(connect(token));
+        BlockingQueue<SessionUpdateMessage> laptop = subscribe(connect(token));
+        assertThat(meterRegistry.get("ws.connections").gauge().value()).isGreaterThanOrEqualTo(2);
+
+        // Start, pause and resume land in one coalesce window: one frame per device
+        Long sessionId = sessionService.startSession(userId, "Push", 25, SessionType.FOCUS).getId();
+        sessionService.pauseSession(userId, sessionId);
+        sessionService.resumeSession(userId, sessionId);
+
+        for (BlockingQueue<SessionUpdateMessage> device : List.of(phone, laptop)) {
+            SessionUpdateMessage message = device.poll(5, TimeUnit.SECONDS);
+            assertThat(message).isNotNull();
+            assertThat(message.event()).isEqualTo("RESUMED");
+            assertThat(message.session().status()).isEqualTo("RESUMED");
+            assertThat(device.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        }
+
+        sessionService.endSession(userId, sessionId, "Done", SessionState.COMPLETED);
+        SessionUpdateMessage ended = phone.poll(5, TimeUnit.SECONDS);
+        assertThat(ended.event()).isEqualTo("ENDED");
+        assertThat(ended.session().status()).isEqualTo("COMPLETED");
+        assertThat(laptop.poll(5, TimeUnit.SECONDS).event()).isEqualTo("ENDED");
+
+        // Recorded just after the send, so it may trail the frame slightly
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pushCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pushCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testHeartbeatsRunOnTheManagedBrokerScheduler() throws Exception {
+        assertThat(simpleBrokerMessageHandler.getHeartbeatValue()).containsExactly(10_000, 10_000);
+        // Injected lazily, so the handler holds a proxy to the bean
+        Advised proxy = (Advised) simpleBrokerMessageHandler.getTaskScheduler();
+        assertThat(proxy.getTargetSource().getTarget()).isSameAs(messageBrokerTaskScheduler);
+    }
+
+    @Test
+    void testConnectWithoutValidTokenIsRejected() {
+        assertThrows(ExecutionException.class, () -> connect("not-a-token"));
+    }
+
+    private StompSession connect(String bearerToken) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + bearerToken);
+        StompSession session = stompClient.connectAsync("ws://localhost:" + port + "/ws",
+                        new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                        })
+                .get(5, TimeUnit.SECONDS);
+        sessions.add(session);
+        return session;
+    }
+
+    private BlockingQueue<SessionUpdateMessage> subscribe(StompSession session) throws Exception {
+        BlockingQueue<SessionUpdateMessage> received = new LinkedBlockingQueue<>();
+        int before = subscriptionCount();
+        session.subscribe("/user/queue/sessions", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders stompHeaders) {
+                return SessionUpdateMessage.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders stompHeaders, Object payload) {
+                received.add((SessionUpdateMessage) payload);
+            }
+        });
+
+        // The simple broker sends no receipts; wait for the server to register the subscription
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (subscriptionCount() == before && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(subscriptionCount()).isEqualTo(before + 1);
+        return received;
+    }
+
+    private long pushCount() {
+        return meterRegistry.get("ws.session.push.latency").timer().count();
+    }
+
+    private int subscriptionCount() {
+        return simpUserRegistry.findSubscriptions(
+                subscription -> subscription.getSession().getUser().getName().equals(userId.toString())).size();
+    }
+}
@@ -0,0 +1,119 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.SessionFilter;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * One active session per user is enforced by ux_sessions_user_active, not
+ * by the check in front of the insert.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SingleActiveSessionTest {
+
+    private static final int PARALLEL_STARTS = 16;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, "single");
+    }
+
+    @RepeatedTest(5)
+    void testConcurrentStartsHaveExactlyOneWinner() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PARALLEL_STARTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Session>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < PARALLEL_STARTS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return sessionService.startSession(user.getId(), "Race", 25, SessionType.FOCUS);
+                }));
+            }
+            start.countDown();
+
+            int successes = 0;
+            int rejections = 0;
+            for (Future<Session> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    successes++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class)
+                            .hasMessage("User already has an active session");
+                    rejections++;
+                }
+            }
+
+            assertThat(successes).isEqualTo(1);
+            assertThat(rejections).isEqualTo(PARALLEL_STARTS - 1);
+            assertThat(sessionRepository.findPage(user.getId(), SessionFilter.none(), null, 50)).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDatabaseRejectsSecondActiveSessionWrittenDirectly() {
+        sessionService.startSession(user.getId(), "First", 25, SessionType.FOCUS);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> sessionRepository.saveAndFlush(newSession(SessionState.PAUSED)));
+    }
+
+    @Test
+    void testEndedSessionsDoNotCount() {
+        Session first = sessionService.startSession(user.getId(), "First", 25, SessionType.FOCUS);
+        sessionService.endSession(user.getId(), first.getId(), null, SessionState.COMPLETED);
+        sessionRepository.saveAndFlush(newSession(SessionState.ABORTED));
+
+        Session second = sessionService.startSession(user.getId(), "Second", 25, SessionType.FOCUS);
+
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+    }
+
+    private Session newSession(SessionState status) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setStatus(status);
+        session.setTaskDescription("Direct");
+        session.setPlannedDuration(25);
+        session.setStartedAt(LocalDateTime.now());
+        session.setSessionDate(LocalDate.now());
+        return session;
+    }
+}
@@ -41,7 +41,7 @@ class StreakServiceTest {
         streak.setUserId(1L);
         user.setStreak(streak);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(streakRepository.findById(1L)).thenReturn(Optional.of(streak));
     }
 
     @Test
@@ -0,0 +1,220 @@
+package com.focusbuddy.service;
+
+import com.focusbuddy.dto.ProductivityStats;
+import com.focusbuddy.dto.StatsRange;
+import com.focusbuddy.model.Session;
+import com.focusbuddy.model.SessionState;
+import com.focusbuddy.model.SessionType;
+import com.focusbuddy.model.User;
+import com.focusbuddy.model.UserDailyStats;
+import com.focusbuddy.repository.SessionRepository;
+import com.focusbuddy.repository.UserDailyStatsRepository;
+import com.focusbuddy.repository.UserRepository;
+import com.focusbuddy.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserDailyStatsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 3);
+
+    @Autowired
+    private UserDailyStatsService userDailyStatsService;
+
+    @Autowired
+    private UserDailyStatsRepository userDailyStatsRepository;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private ProductivityService productivityService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, "rollup");
+    }
+
+    @Test
+    void testSessionChangesAreRolledUpAsTheyHappen() {
+        Session completed = sessionService.startSession(user.getId(), "Deep work", 25, SessionType.FOCUS);
+        sessionService.addDistraction(user.getId(), completed.getId(), "Phone");
+        expire(completed, SessionState.COMPLETED, 1500);
+
+        Session aborted = sessionService.startSession(user.getId(), "Meeting", 30, SessionType.MEETING);
+        sessionService.addDistraction(user.getId(), aborted.getId(), "Email");
+        sessionService.addDistraction(user.getId(), aborted.getId(), "Chat");
+        expire(aborted, SessionState.ABORTED, 600);
+
+        sessionService.startSession(user.getId(), "Still running", 25, SessionType.FOCUS);
+
+        UserDailyStats today = onlyDay();
+        assertThat(today.getStatDate()).isEqualTo(completed.getStartedAt().toLocalDate());
+        assertThat(today.getSessionsStarted()).isEqualTo(3);
+        assertThat(today.getSessionsCompleted()).isEqualTo(1);
+        assertThat(today.getFocusSeconds()).isEqualTo(1500);
+        assertThat(today.getMeetingSeconds()).isZero();
+        assertThat(today.getDistractionCount()).isEqualTo(3);
+
+        // A rebuild from focus_sessions arrives at the same row
+        assertThat(userDailyStatsService.rebuild(user.getId())).isEqualTo(1);
+        assertThat(onlyDay()).isEqualTo(today);
+    }
+
+    @Test
+    void testStatsReadTheRollupInsteadOfSessions() {
+        Session session = sessionService.startSession(user.getId(), "Deep work", 25, SessionType.FOCUS);
+        expire(session, SessionState.COMPLETED, 1500);
+        sessionService.startSession(user.getId(), "Abandoned", 25, SessionType.FOCUS);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ProductivityStats stats = productivityService.getStats(user.getId(), StatsRange.WEEKLY);
+
+        assertThat(statistics.getEntityStatistics(Session.class.getName()).getLoadCount()).isZero();
+        assertThat(stats.totalFocusMinutes()).isEqualTo(25);
+        assertThat(stats.totalSessions()).isEqualTo(2);
+        assertThat(stats.completedSessions()).isEqualTo(1);
+        assertThat(stats.completionRate()).isEqualTo(50.0);
+        assertThat(stats.focusConsistencyPercent()).isEqualTo(14.3);
+    }
+
+    @Test
+    void testRebuildBackfillsSessionsWrittenOutsideTheService() {
+        saved(SessionType.FOCUS, DAY.atTime(8, 0), 1500, SessionState.COMPLETED);
+        saved(SessionType.BREAK, DAY.atTime(9, 0), 300, SessionState.COMPLETED);
+        saved(SessionType.FOCUS, DAY.atTime(10, 0), 900, SessionState.ABORTED);
+        saved(SessionType.OTHER, DAY.plusDays(1).atTime(7, 0), 1200, SessionState.COMPLETED);
+        assertThat(userDailyStatsRepository.findByUserIdAndStatDateBetween(user.getId(), DAY, DAY.plusDays(1)))
+                .isEmpty();
+
+        int days = userDailyStatsService.rebuild(user.getId());
+
+        List<UserDailyStats> rows = userDailyStatsService.findDays(user.getId(), DAY, DAY.plusDays(1));
+        assertThat(days).isEqualTo(2);
+        UserDailyStats first = rows.stream().filter(row -> row.getStatDate().equals(DAY)).findFirst().orElseThrow();
+        assertThat(first.getSessionsStarted()).isEqualTo(3);
+        assertThat(first.getSessionsCompleted()).isEqualTo(2);
+        assertThat(first.getFocusSeconds()).isEqualTo(1500);
+        assertThat(first.getBreakSeconds()).isEqualTo(300);
+        assertThat(first.getCompletedSeconds()).isEqualTo(1800);
+        UserDailyStats second = rows.stream().filter(row -> row.getStatDate().equals(DAY.plusDays(1)))
+                .findFirst().orElseThrow();
+        assertThat(second.getOtherSeconds()).isEqualTo(1200);
+
+        // Rebuilding again replaces rather than adds
+        userDailyStatsService.rebuild(user.getId());
+        assertThat(userDailyStatsService.findDays(user.getId(), DAY, DAY)).containsExactly(first);
+    }
+
+    @Test
+    void testAnyRangeIsTheDifferenceOfTwoRows() {
+        saved(SessionType.FOCUS, DAY.minusYears(2).atTime(8, 0), 1200, SessionState.COMPLETED);
+        saved(SessionType.FOCUS, DAY.minusDays(3).atTime(8, 0), 1500, SessionState.COMPLETED);
+        saved(SessionType.BREAK, DAY.minusDays(3).atTime(9, 0), 300, SessionState.COMPLETED);
+        saved(SessionType.FOCUS, DAY.atTime(8, 0), 900, SessionState.ABORTED);
+        saved(SessionType.MEETING, DAY.plusDays(5).atTime(8, 0), 3600, SessionState.COMPLETED);
+        userDailyStatsService.rebuild(user.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ProductivityStats all = productivityService.getStats(user.getId(), DAY.minusYears(3), DAY.plusYears(1));
+        ProductivityStats middle = productivityService.getStats(user.getId(), DAY.minusDays(3), DAY);
+        ProductivityStats empty = productivityService.getStats(user.getId(), DAY.minusDays(2), DAY.minusDays(1));
+
+        assertThat(statistics.getEntityStatistics(Session.class.getName()).getLoadCount()).isZero();
+        assertThat(all.totalSessions()).isEqualTo(5);
+        assertThat(all.completedSessions()).isEqualTo(4);
+        assertThat(all.totalFocusMinutes()).isEqualTo(110);
+        assertThat(middle.totalSessions()).isEqualTo(3);
+        assertThat(middle.completedSessions()).isEqualTo(2);
+        assertThat(middle.totalFocusMinutes()).isEqualTo(30);
+        assertThat(middle.focusConsistencyPercent()).isEqualTo(25.0);
+        assertThat(empty.totalSessions()).isZero();
+        assertThat(empty.focusConsistencyPercent()).isZero();
+    }
+
+    @Test
+    void testChangeToAPastDayIsCarriedIntoLaterTotals() {
+        saved(SessionType.FOCUS, DAY.minusDays(2).atTime(8, 0), 600, SessionState.COMPLETED);
+        saved(SessionType.FOCUS, DAY.plusDays(2).atTime(8, 0), 600, SessionState.COMPLETED);
+        userDailyStatsService.rebuild(user.getId());
+
+        // A session on a day without a row, then a second completion on an already active day
+        Session late = saved(SessionType.FOCUS, DAY.atTime(8, 0), 1200, SessionState.COMPLETED);
+        userDailyStatsService.recordStarted(user.getId(), DAY);
+        userDailyStatsService.recordEnded(user.getId(), late);
+        Session another = saved(SessionType.BREAK, DAY.plusDays(2).atTime(9, 0), 300, SessionState.COMPLETED);
+        userDailyStatsService.recordStarted(user.getId(), DAY.plusDays(2));
+        userDailyStatsService.recordEnded(user.getId(), another);
+        List<UserDailyStats> incremental = userDailyStatsService.findDays(user.getId(), DAY.minusDays(2),
+                DAY.plusDays(2));
+
+        userDailyStatsService.rebuild(user.getId());
+
+        assertThat(incremental).hasSize(3);
+        assertThat(userDailyStatsService.findDays(user.getId(), DAY.minusDays(2), DAY.plusDays(2)))
+                .containsExactlyInAnyOrderElementsOf(incremental);
+        UserDailyStatsService.RangeTotals totals = userDailyStatsService.totalsBetween(user.getId(), DAY, DAY);
+        assertThat(totals).isEqualTo(new UserDailyStatsService.RangeTotals(1, 1, 1200, 1));
+    }
+
+    @Test
+    void testRangeMustNotBeReversed() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productivityService.getStats(user.getId(), DAY, DAY.minusDays(1)));
+    }
+
+    private void expire(Session session, SessionState target, int seconds) {
+        sessionService.expireSession(user.getId(), session.getId(), EnumSet.of(SessionState.STARTED), target,
+                session.getStartedAt().plusSeconds(seconds));
+    }
+
+    private UserDailyStats onlyDay() {
+        List<UserDailyStats> rows = userDailyStatsService.findDays(user.getId(), LocalDate.now().minusDays(1),
+                LocalDate.now());
+        assertThat(rows).hasSize(1);
+        return rows.get(0);
+    }
+
+    private Session saved(SessionType type, LocalDateTime startedAt, int seconds, SessionState status) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setTaskDescription(type + " at " + startedAt);
+        session.setPlannedDuration(seconds / 60);
+        session.setStartedAt(startedAt);
+        session.setEndedAt(startedAt.plusSeconds(seconds));
+        session.setActualDuration(seconds);
+        session.setSessionDate(startedAt.toLocalDate());
+        session.setStatus(status);
+        session.setSessionType(type);
+        return sessionRepository.save(session);
+    }
+}
@@ -0,0 +1,38 @@
+package com.focusbuddy.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Hibernate statement inspector that records every SQL statement issued.
+ * Registered through the test profile; Hibernate instantiates it by class name,
+ * so recorded statements live in a static list.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    public static List<String> statementsTouching(String table) {
+        String needle = table.toLowerCase(Locale.ROOT);
+        return STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains(needle))
+                .toList();
+    }
+}
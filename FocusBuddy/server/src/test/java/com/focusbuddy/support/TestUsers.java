@@ -0,0 +1,34 @@
+package com.focusbuddy.support;
+
+import com.focusbuddy.model.User;
+import com.focusbuddy.repository.UserRepository;
+
+import java.util.UUID;
+
+/**
+ * Users for integration tests. Each gets a random suffix so tests sharing
+ * one database do not collide on the unique email and handle.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    /**
+     * An unsaved user, for tests that attach more to it before saving.
+     *
+     * @param prefix at most 11 characters, as handles are limited to 20
+     */
+    public static User newUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setEmail(prefix + "-" + suffix + "@focusbuddy.com");
+        user.setHandle(prefix + "_" + suffix);
+        user.setPasswordHash("not-used");
+        return user;
+    }
+
+    public static User create(UserRepository userRepository, String prefix) {
+        return userRepository.save(newUser(prefix));
+    }
+}